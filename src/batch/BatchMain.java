@@ -0,0 +1,235 @@
+// Headless batch runner: no ui classes, no AWT, no JMX, so it starts fast on display-less machines.
+//   javac --add-modules jdk.incubator.vector -d out $(find src -name '*.java')
+//   java [--add-modules jdk.incubator.vector] -cp out batch.BatchMain
+//        [-mode count|symmetric|frontier|rows|race|minconflicts|column] [-threads n]
+//        [-format csv|json] [-timeout seconds] [-memory MB] N...
+// N can be a single value, a range (8-12) or a comma list (8,10,12). One line (CSV) or object (JSON) per run
+// goes to stdout as soon as the run finishes:
+//   count, symmetric  every solution counted (symmetric: fundamental solutions too, half the work), with the
+//                     placements made below the prefix tasks as nodes
+//   frontier          every solution counted by meeting in the middle, within -memory MB of heap (default: half)
+//   rows              the UI's search: first solution from every first-column row (QueenWorker)
+//   race              first solution found by the portfolio race
+//   minconflicts      first placement found by min-conflicts repair (very large N)
+//   column            first solution of one lane of column-batch backtracking (solver.ColumnSearch), on the vector
+//                     kernel when the JVM was started with --add-modules jdk.incubator.vector, scalar otherwise
+// For many short runs most of the time is JVM startup; from a jar an AppCDS archive trims it further:
+//   java -XX:ArchiveClassesAtExit=batch.jsa -cp nqueens.jar batch.BatchMain -mode race 8   (once)
+//   java -XX:SharedArchiveFile=batch.jsa -XX:TieredStopAtLevel=1 -cp nqueens.jar batch.BatchMain ...
+
+package batch;
+
+import controller.ExecutorStrategy;
+import controller.ThreadManager;
+import model.CountResult;
+import model.Engine;
+import model.RunConfig;
+import solver.ColumnKernel;
+import solver.ColumnSearch;
+import solver.FrontierCounter;
+import solver.ProgressEstimator;
+import threads.WorkerCounters;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class BatchMain {
+
+    static final String[] COLUMNS = {
+            "mode", "n", "threads", "millis", "solutions", "fundamental", "nodes", "est_nodes", "status"
+    };
+
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "batch-timeout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static long memoryBudget = FrontierCounter.defaultMemoryBudget(); // bytes, frontier mode
+
+    public static void main(String[] args) throws Exception {
+        String mode = "count";
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean json = false;
+        long timeoutSeconds = 3600;
+        List<Integer> sizes = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-mode": mode = args[++i]; break;
+                    case "-threads": threads = Integer.parseInt(args[++i]); break;
+                    case "-format": json = args[++i].equals("json"); break;
+                    case "-timeout": timeoutSeconds = Long.parseLong(args[++i]); break;
+                    case "-memory": memoryBudget = Long.parseLong(args[++i]) << 20; break;
+                    default:
+                        if (args[i].startsWith("-")) usage("Unknown option " + args[i]);
+                        parseSizes(args[i], sizes);
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage("Not a number: " + e.getMessage());
+        } catch (ArrayIndexOutOfBoundsException e) {
+            usage("Missing value after " + args[args.length - 1]);
+        }
+        if (sizes.isEmpty()) usage("No board size given");
+
+        PrintStream out = System.out;
+        ThreadManager manager = new ThreadManager(threads, ExecutorStrategy.PLATFORM_POOL, false);
+
+        if (json) out.println("["); else out.println(String.join(",", COLUMNS));
+        for (int i = 0; i < sizes.size(); i++) {
+            Object[] row = run(manager, mode, sizes.get(i), threads, timeoutSeconds);
+            out.println(json ? toJson(row) + (i + 1 < sizes.size() ? "," : "") : toCsv(row));
+            out.flush();
+        }
+        if (json) out.println("]");
+
+        manager.stopAll();
+        System.exit(0); // don't wait for idle pool threads
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("usage: BatchMain [-mode count|symmetric|frontier|rows|race|minconflicts|column]"
+                + " [-threads n] [-format csv|json] [-timeout seconds] [-memory MB] N...");
+        System.exit(2);
+    }
+
+    // One row of COLUMNS; null cells are left empty
+    static Object[] run(ThreadManager manager, String mode, int N, int threads, long timeoutSeconds)
+            throws Exception {
+        long placementsBefore = manager.counters.sum(WorkerCounters.PLACEMENTS);
+        long solutionsBefore = manager.counters.sum(WorkerCounters.SOLUTIONS);
+        long start = System.nanoTime();
+
+        Long solutions = null;
+        Long fundamental = null;
+        Long nodes = null;
+        Long estNodes = null;
+        String status = "ok";
+
+        switch (mode) {
+            case "count":
+            case "symmetric":
+            case "frontier": {
+                // The counts block, so the timeout stops them from a timer; a stopped count is a partial total
+                AtomicBoolean timedOut = new AtomicBoolean(false);
+                ScheduledFuture<?> timer = TIMEOUTS.schedule(() -> {
+                    timedOut.set(true);
+                    manager.stopAll();
+                }, timeoutSeconds, TimeUnit.SECONDS);
+                CountResult result;
+                try {
+                    result = mode.equals("frontier")
+                            ? manager.countFrontier(N, memoryBudget)
+                            : manager.countAll(N, mode.equals("symmetric"));
+                } finally {
+                    timer.cancel(false);
+                }
+                solutions = result.getTotal();
+                if (result.getFundamental() >= 0) fundamental = result.getFundamental();
+                if (result.getNodes() >= 0) nodes = result.getNodes();
+                ProgressEstimator progress = manager.progress;
+                if (progress != null && !progress.progress().isSaturated()) {
+                    estNodes = progress.progress().getEstimatedNodes();
+                }
+                if (timedOut.get()) status = "timeout";
+                break;
+            }
+            case "rows": {
+                manager.startAll(N, RunConfig.turbo(0), Engine.BACKTRACKING);
+                if (!manager.awaitCompletion(timeoutSeconds, TimeUnit.SECONDS)) {
+                    manager.stopAll();
+                    status = "timeout";
+                }
+                solutions = manager.counters.sum(WorkerCounters.SOLUTIONS) - solutionsBefore;
+                nodes = manager.counters.sum(WorkerCounters.PLACEMENTS) - placementsBefore;
+                break;
+            }
+            case "race":
+            case "minconflicts": {
+                // One deadline for the search and the losers winding down
+                long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+                int[] placement = mode.equals("race")
+                        ? manager.findFirstSolution(N, timeoutSeconds, TimeUnit.SECONDS)
+                        : manager.findPlacement(N, timeoutSeconds, TimeUnit.SECONDS);
+                if (!manager.awaitCompletion(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    manager.stopAll();
+                }
+                solutions = placement != null ? 1L : 0L;
+                nodes = manager.counters.sum(WorkerCounters.PLACEMENTS) - placementsBefore;
+                if (placement == null) status = (N == 2 || N == 3) ? "none" : "timeout";
+                break;
+            }
+            case "column": {
+                // One lane, stopped from a timer like the counts
+                AtomicBoolean stop = new AtomicBoolean(false);
+                ScheduledFuture<?> timer = TIMEOUTS.schedule(() -> stop.set(true), timeoutSeconds, TimeUnit.SECONDS);
+                ColumnSearch search = new ColumnSearch(N, ColumnKernel.best());
+                boolean found;
+                try {
+                    found = search.solve(stop);
+                } finally {
+                    timer.cancel(false);
+                }
+                solutions = found ? 1L : 0L;
+                nodes = search.getNodes();
+                if (!found) status = search.isExhausted() ? "none" : "timeout";
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Object[] {mode, N, threads, millis, solutions, fundamental, nodes, estNodes, status};
+    }
+
+    static void parseSizes(String arg, List<Integer> sizes) {
+        for (String part : arg.split(",")) {
+            int dash = part.indexOf('-', 1);
+            if (dash < 0) {
+                sizes.add(Integer.parseInt(part));
+            } else {
+                int from = Integer.parseInt(part.substring(0, dash));
+                int to = Integer.parseInt(part.substring(dash + 1));
+                for (int n = from; n <= to; n++) {
+                    sizes.add(n);
+                }
+            }
+        }
+    }
+
+    private static String toCsv(Object[] row) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) sb.append(',');
+            if (row[i] != null) sb.append(row[i]);
+        }
+        return sb.toString();
+    }
+
+    private static String toJson(Object[] row) {
+        StringBuilder sb = new StringBuilder("  {");
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('"').append(COLUMNS[i]).append("\": ");
+            Object value = row[i];
+            if (value == null) {
+                sb.append("null");
+            } else if (value instanceof String) {
+                sb.append('"').append(value).append('"');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
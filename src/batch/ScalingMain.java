@@ -0,0 +1,392 @@
+// End-to-end scaling harness: drives ThreadManager headless (the same runs as BatchMain) over a matrix of modes,
+// board sizes and worker counts, and writes a JSON report that can be diffed against a stored baseline.
+//   java -cp out batch.ScalingMain [-modes count,rows] [-n 8-14] [-threads 1,2,4] [-reps 3] [-warmup 1]
+//                                  [-timeout seconds] [-out scaling-report.json] [-baseline file] [-tolerance 0.10]
+//                                  [-minMillis 20] [-memory MB]
+//
+// Per cell (mode, N, threads), after the warmup runs: median and best wall time, nodes and nodes/sec, speedup and
+// parallel efficiency against the 1-thread cell, and heap allocation and GC pauses taken from the GC notifications.
+// Nodes are whatever BatchMain reports for the mode (null where it has none).
+// Threads default to 1, 2, 4, ... up to the number of cores.
+//
+// The report has one result object per line, so it also diffs well as text. With -baseline, every cell whose
+// median wall time grew by more than the tolerance (and is at least minMillis long) is flagged, and the exit
+// status is 1 if any was.
+
+package batch;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import controller.ExecutorStrategy;
+import controller.ThreadManager;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ScalingMain {
+
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\": (\"[^\"]*\"|[-0-9.eE]+|null)");
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = new ArrayList<>(Arrays.asList("count", "rows"));
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> threadCounts = new ArrayList<>();
+        int reps = 3;
+        int warmup = 1;
+        long timeoutSeconds = 3600;
+        Path out = Paths.get("scaling-report.json");
+        Path baseline = null;
+        double tolerance = 0.10;
+        long minMillis = 20;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-modes": modes = Arrays.asList(args[++i].split(",")); break;
+                case "-n": BatchMain.parseSizes(args[++i], sizes); break;
+                case "-threads": BatchMain.parseSizes(args[++i], threadCounts); break;
+                case "-reps": reps = Integer.parseInt(args[++i]); break;
+                case "-warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "-timeout": timeoutSeconds = Long.parseLong(args[++i]); break;
+                case "-out": out = Paths.get(args[++i]); break;
+                case "-baseline": baseline = Paths.get(args[++i]); break;
+                case "-tolerance": tolerance = Double.parseDouble(args[++i]); break;
+                case "-minMillis": minMillis = Long.parseLong(args[++i]); break;
+                case "-memory": BatchMain.memoryBudget = Long.parseLong(args[++i]) << 20; break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (sizes.isEmpty()) BatchMain.parseSizes("8-14", sizes);
+        if (threadCounts.isEmpty()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int t = 1; t < cores; t *= 2) threadCounts.add(t);
+            threadCounts.add(cores);
+        }
+
+        GcRecorder gc = new GcRecorder();
+        List<Map<String, Object>> results = new ArrayList<>();
+        PrintStream log = System.err;
+
+        for (int threads : threadCounts) {
+            ThreadManager manager = new ThreadManager(threads, ExecutorStrategy.PLATFORM_POOL, false);
+            for (String mode : modes) {
+                for (int N : sizes) {
+                    Map<String, Object> cell = measure(manager, gc, mode, N, threads, reps, warmup, timeoutSeconds);
+                    results.add(cell);
+                    log.println(toJson(cell));
+                }
+            }
+            manager.stopAll();
+        }
+        addSpeedup(results);
+
+        StringBuilder report = new StringBuilder("{\n");
+        report.append("  \"environment\": ").append(toJson(environment())).append(",\n");
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("modes", String.join(",", modes));
+        settings.put("sizes", sizes.toString());
+        settings.put("threads", threadCounts.toString());
+        settings.put("reps", reps);
+        settings.put("warmup", warmup);
+        report.append("  \"settings\": ").append(toJson(settings)).append(",\n");
+        report.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            report.append("    ").append(toJson(results.get(i))).append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        report.append("  ]\n}\n");
+        Files.writeString(out, report);
+        log.println("report written to " + out);
+
+        int regressions = baseline == null ? 0 : compare(results, readResults(baseline), tolerance, minMillis, System.out);
+        System.exit(regressions > 0 ? 1 : 0); // don't wait for idle pool threads
+    }
+
+    private static Map<String, Object> measure(ThreadManager manager, GcRecorder gc, String mode, int N, int threads,
+                                               int reps, int warmup, long timeoutSeconds) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            BatchMain.run(manager, mode, N, threads, timeoutSeconds);
+        }
+
+        double[] wallMillis = new double[reps];
+        long[] allocated = new long[reps];
+        long gcCount = 0;
+        double gcPauseMillis = 0;
+        double gcMaxPauseMillis = 0;
+        Object[] row = null;
+        for (int i = 0; i < reps; i++) {
+            gc.settle(); // start every repetition from a settled heap
+            long start = System.nanoTime();
+            row = BatchMain.run(manager, mode, N, threads, timeoutSeconds);
+            wallMillis[i] = (System.nanoTime() - start) / 1e6;
+            allocated[i] = gc.allocatedBytes();
+            gcCount += gc.count;
+            gcPauseMillis += gc.pauseMillis;
+            gcMaxPauseMillis = Math.max(gcMaxPauseMillis, gc.maxPauseMillis);
+        }
+
+        double wall = median(wallMillis);
+        long nodes = row[column("nodes")] != null ? (Long) row[column("nodes")] : -1;
+        Arrays.sort(allocated);
+        double allocMb = allocated[allocated.length / 2] / 1e6;
+
+        Map<String, Object> cell = new LinkedHashMap<>();
+        cell.put("mode", mode);
+        cell.put("n", N);
+        cell.put("threads", threads);
+        cell.put("reps", reps);
+        cell.put("wall_ms", wall);
+        cell.put("wall_ms_min", Arrays.stream(wallMillis).min().orElse(0));
+        cell.put("nodes", nodes >= 0 ? nodes : null);
+        cell.put("nodes_per_sec", nodes >= 0 && wall > 0 ? nodes / (wall / 1000) : null);
+        cell.put("speedup", null);
+        cell.put("efficiency", null);
+        cell.put("alloc_mb", allocMb);
+        cell.put("alloc_mb_per_sec", wall > 0 ? allocMb / (wall / 1000) : null);
+        cell.put("gc_count", gcCount);
+        cell.put("gc_pause_ms", gcPauseMillis);
+        cell.put("gc_max_pause_ms", gcMaxPauseMillis);
+        cell.put("solutions", row[column("solutions")]);
+        cell.put("status", row[column("status")]);
+        return cell;
+    }
+
+    // Speedup and efficiency of each cell against the 1-thread cell with the same mode and N
+    private static void addSpeedup(List<Map<String, Object>> results) {
+        Map<String, Double> single = new HashMap<>();
+        for (Map<String, Object> cell : results) {
+            if ((Integer) cell.get("threads") == 1) single.put(cell.get("mode") + "/" + cell.get("n"), (Double) cell.get("wall_ms"));
+        }
+        for (Map<String, Object> cell : results) {
+            Double base = single.get(cell.get("mode") + "/" + cell.get("n"));
+            double wall = (Double) cell.get("wall_ms");
+            if (base == null || wall <= 0) continue;
+            double speedup = base / wall;
+            cell.put("speedup", speedup);
+            cell.put("efficiency", speedup / (Integer) cell.get("threads"));
+        }
+    }
+
+    // Prints one line per cell present in both reports; returns the number of regressions
+    private static int compare(List<Map<String, Object>> current, List<Map<String, String>> baseline,
+                               double tolerance, long minMillis, PrintStream out) {
+        Map<String, Map<String, String>> byKey = new HashMap<>();
+        for (Map<String, String> cell : baseline) {
+            byKey.put(cell.get("mode").replace("\"", "") + "/" + cell.get("n") + "/" + cell.get("threads"), cell);
+        }
+
+        int regressions = 0;
+        out.printf("%-12s %4s %7s %12s %12s %8s%n", "mode", "n", "threads", "base ms", "now ms", "change");
+        for (Map<String, Object> cell : current) {
+            Map<String, String> base = byKey.get(cell.get("mode") + "/" + cell.get("n") + "/" + cell.get("threads"));
+            if (base == null) continue;
+            double before = Double.parseDouble(base.get("wall_ms"));
+            double now = (Double) cell.get("wall_ms");
+            double change = before > 0 ? now / before - 1 : 0;
+
+            String verdict = "";
+            if (Math.max(before, now) >= minMillis) {
+                if (change > tolerance) {
+                    verdict = "REGRESSION";
+                    regressions++;
+                } else if (change < -tolerance) {
+                    verdict = "improved";
+                }
+            }
+            out.printf(Locale.ROOT, "%-12s %4d %7d %12.2f %12.2f %+7.1f%% %s%n",
+                    cell.get("mode"), cell.get("n"), cell.get("threads"), before, now, change * 100, verdict);
+        }
+        out.println(regressions + " regression(s) beyond " + Math.round(tolerance * 100) + "%");
+        return regressions;
+    }
+
+    // The result lines of a report written by this class (raw JSON values, strings still quoted)
+    private static List<Map<String, String>> readResults(Path path) throws IOException {
+        List<Map<String, String>> results = new ArrayList<>();
+        boolean inResults = false;
+        for (String line : Files.readAllLines(path)) {
+            if (line.contains("\"results\"")) {
+                inResults = true;
+                continue;
+            }
+            if (!inResults || !line.trim().startsWith("{")) continue;
+            Map<String, String> cell = new HashMap<>();
+            Matcher m = FIELD.matcher(line);
+            while (m.find()) {
+                cell.put(m.group(1), m.group(2));
+            }
+            results.add(cell);
+        }
+        return results;
+    }
+
+    private static Map<String, Object> environment() {
+        Runtime runtime = Runtime.getRuntime();
+        List<String> collectors = new ArrayList<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.add(bean.getName());
+        }
+
+        Map<String, Object> env = new LinkedHashMap<>();
+        env.put("timestamp", Instant.now().toString());
+        env.put("java", System.getProperty("java.version"));
+        env.put("vm", System.getProperty("java.vm.name"));
+        env.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        env.put("cores", runtime.availableProcessors());
+        env.put("max_heap_mb", runtime.maxMemory() >> 20);
+        env.put("gc", String.join(", ", collectors));
+        env.put("jvm_args", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        return env;
+    }
+
+    private static int column(String name) {
+        return Arrays.asList(BatchMain.COLUMNS).indexOf(name);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+
+    private static String toJson(Map<String, Object> fields) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append('"').append(field.getKey()).append("\": ");
+            Object value = field.getValue();
+            if (value == null) {
+                sb.append("null");
+            } else if (value instanceof String) {
+                sb.append('"').append(((String) value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else if (value instanceof Double) {
+                sb.append(String.format(Locale.ROOT, "%.3f", (Double) value));
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    // Collects GC pauses and estimates allocation from heap occupancy before and after each collection:
+    // everything the heap grew by between collections, plus the growth since the last one. Only heap pools are
+    // summed, and collectors that report a whole concurrent cycle (ZGC/Shenandoah "Cycles", G1 "Concurrent GC",
+    // CMS) still feed the allocation estimate but their durations are not pauses.
+    private static class GcRecorder implements NotificationListener {
+
+        long count;
+        double pauseMillis;
+        double maxPauseMillis;
+        private long allocated;
+        private long usedAfterLast;
+        private long notifications;
+        private final long collectionsBefore;
+        private final Set<String> heapPools = new HashSet<>();
+        private final List<GarbageCollectorMXBean> collectors = new ArrayList<>();
+
+        GcRecorder() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) heapPools.add(pool.getName());
+            }
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter) {
+                    ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+                    collectors.add(bean);
+                }
+            }
+            collectionsBefore = collections();
+        }
+
+        // Runs a full collection, waits (up to a second) until its notification has been delivered so that it
+        // is not charged to the next repetition, then resets the counters
+        void settle() throws InterruptedException {
+            System.gc();
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (received() < collections() - collectionsBefore && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            reset();
+        }
+
+        synchronized void reset() {
+            count = 0;
+            pauseMillis = 0;
+            maxPauseMillis = 0;
+            allocated = 0;
+            usedAfterLast = heapUsed();
+        }
+
+        synchronized long allocatedBytes() {
+            return allocated + Math.max(0, heapUsed() - usedAfterLast);
+        }
+
+        @Override
+        public synchronized void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+            GarbageCollectionNotificationInfo gcInfo = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            GcInfo info = gcInfo.getGcInfo();
+            long before = heapSum(info.getMemoryUsageBeforeGc());
+            long after = heapSum(info.getMemoryUsageAfterGc());
+            allocated += Math.max(0, before - usedAfterLast);
+            usedAfterLast = after;
+            notifications++;
+            if (isConcurrent(gcInfo.getGcName())) return;
+            count++;
+            pauseMillis += info.getDuration();
+            maxPauseMillis = Math.max(maxPauseMillis, info.getDuration());
+        }
+
+        private static boolean isConcurrent(String collector) {
+            return collector.endsWith("Cycles") || collector.contains("Concurrent");
+        }
+
+        private synchronized long received() {
+            return notifications;
+        }
+
+        private long collections() {
+            long total = 0;
+            for (GarbageCollectorMXBean bean : collectors) {
+                total += Math.max(0, bean.getCollectionCount());
+            }
+            return total;
+        }
+
+        private long heapSum(Map<String, MemoryUsage> pools) {
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> pool : pools.entrySet()) {
+                if (heapPools.contains(pool.getKey())) used += pool.getValue().getUsed();
+            }
+            return used;
+        }
+
+        private static long heapUsed() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+}
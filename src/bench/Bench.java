@@ -0,0 +1,99 @@
+// Minimal JMH-style harness: warmup and measurement iterations of fixed duration, ops counted per iteration,
+// results reported as mean +- stddev ns/op. Results are fed into a sink so the JIT can't drop the work.
+
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+public class Bench {
+
+    // Consumes benchmark results (like JMH's Blackhole)
+    public static volatile long sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final Pattern filter;
+    private final List<String> results = new ArrayList<>();
+
+    public Bench(int warmupIterations, int measurementIterations, long iterationMillis, String filter) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        this.filter = Pattern.compile(filter);
+    }
+
+    // op performs one operation and returns something derived from its result
+    public void run(String name, LongSupplier op) {
+        if (!filter.matcher(name).find()) return;
+
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(op);
+        }
+        double[] nsPerOp = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            nsPerOp[i] = iteration(op);
+        }
+        report(name, nsPerOp);
+    }
+
+    // For benchmarks that time themselves: op runs one iteration and returns ns/op for it
+    public void runTimed(String name, TimedIteration op) throws Exception {
+        if (!filter.matcher(name).find()) return;
+
+        for (int i = 0; i < warmupIterations; i++) {
+            op.nanosPerOp(iterationNanos);
+        }
+        double[] nsPerOp = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            nsPerOp[i] = op.nanosPerOp(iterationNanos);
+        }
+        report(name, nsPerOp);
+    }
+
+    public interface TimedIteration {
+        double nanosPerOp(long iterationNanos) throws Exception;
+    }
+
+    private double iteration(LongSupplier op) {
+        long acc = 0;
+        long ops = 0;
+        int batch = 1; // doubled until a batch takes ~10us, so the clock reads don't dominate tiny ops
+        long start = System.nanoTime();
+        long elapsed = 0;
+        do {
+            for (int i = 0; i < batch; i++) {
+                acc += op.getAsLong();
+            }
+            ops += batch;
+            long now = System.nanoTime() - start;
+            if (now - elapsed < 10_000 && batch < (1 << 20)) batch <<= 1;
+            elapsed = now;
+        } while (elapsed < iterationNanos);
+        sink = acc;
+        return (double) elapsed / ops;
+    }
+
+    private void report(String name, double[] nsPerOp) {
+        double mean = 0;
+        for (double v : nsPerOp) mean += v;
+        mean /= nsPerOp.length;
+
+        double var = 0;
+        for (double v : nsPerOp) var += (v - mean) * (v - mean);
+        double stddev = nsPerOp.length > 1 ? Math.sqrt(var / (nsPerOp.length - 1)) : 0;
+
+        String line = String.format(Locale.ROOT, "%-48s %16.1f %12.1f  ns/op", name, mean, stddev);
+        results.add(line);
+        System.out.println(line);
+    }
+
+    public List<String> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,33 @@
+// Entry point for the benchmark suite:
+//   javac --add-modules jdk.incubator.vector -d out $(find src -name '*.java')
+//   java --add-modules jdk.incubator.vector -Djava.awt.headless=true -cp out bench.BenchMain [filter regex] [-wi 5] [-i 5] [-t 1000] [-allRows]
+
+package bench;
+
+public class BenchMain {
+
+    public static void main(String[] args) throws Exception {
+        String filter = "";
+        int warmups = 5;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        boolean allRows = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi": warmups = Integer.parseInt(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-t": iterationMillis = Long.parseLong(args[++i]); break;
+                case "-allRows": allRows = true; break;
+                default: filter = args[i];
+            }
+        }
+
+        Bench bench = new Bench(warmups, iterations, iterationMillis, filter);
+        System.out.printf("%-48s %16s %12s%n", "Benchmark", "Score", "Error");
+
+        SolverBench.run(bench, allRows);
+        PipelineBench.run(bench);
+        RenderBench.run(bench);
+    }
+}
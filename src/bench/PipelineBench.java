@@ -0,0 +1,69 @@
+// Snapshot pipeline: Snapshot allocation/cloning and producer -> consumer throughput of the ThreadManager channel
+
+package bench;
+
+import controller.SnapshotChannel;
+import controller.SnapshotRing;
+import model.BoardView;
+import model.Snapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PipelineBench {
+
+    public static void run(Bench bench) throws Exception {
+        for (int N : new int[]{8, 100}) {
+            int[] queens = new int[N];
+            for (int i = 0; i < N; i++) queens[i] = (i * 2) % N;
+            Snapshot snapshot = new Snapshot(0, queens, 0);
+
+            bench.run("snapshot.create N=" + N, () -> new Snapshot(0, queens, System.nanoTime()).getTimestamp());
+            bench.run("snapshot.getQueens N=" + N, () -> snapshot.getQueens()[N - 1]);
+            bench.run("snapshot.getQueen (view) N=" + N, () -> snapshot.getQueen(N - 1));
+
+            SnapshotRing ring = new SnapshotRing(0, N);
+            bench.run("ring.publish N=" + N, () -> ring.publish(queens, 0) ? 1 : 0);
+        }
+
+        for (int producers : new int[]{1, 4, 16}) {
+            bench.runTimed("channel.throughput N=100 producers=" + producers,
+                    iterationNanos -> channelThroughput(100, producers, iterationNanos));
+        }
+    }
+
+    // Producers publish as fast as they can while one consumer drains at full speed; ns per published board
+    private static double channelThroughput(int N, int producers, long iterationNanos) throws InterruptedException {
+        SnapshotChannel channel = new SnapshotChannel(producers);
+        channel.reset(N);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int threadId = p;
+            threads[p] = new Thread(() -> {
+                int[] queens = new int[N];
+                int step = 0;
+                while (running.get()) {
+                    queens[step++ % N] = step % N;
+                    channel.publish(threadId, queens, step);
+                }
+            });
+        }
+
+        Map<Integer, BoardView> latest = new HashMap<>();
+        long start = System.nanoTime();
+        for (Thread thread : threads) thread.start();
+        long drained = 0;
+        while (System.nanoTime() - start < iterationNanos) {
+            drained += channel.drainTo(latest);
+        }
+        running.set(false);
+        for (Thread thread : threads) thread.join();
+        long elapsed = System.nanoTime() - start;
+
+        Bench.sink = drained;
+        return (double) elapsed / Math.max(1, channel.getPublishedCount());
+    }
+}
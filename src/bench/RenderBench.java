@@ -0,0 +1,64 @@
+// Headless BoardPanel.paintComponent into a BufferedImage, N = threads = 100 as in the worst UI case
+
+package bench;
+
+import model.BoardView;
+import model.Snapshot;
+import ui.BoardPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Random;
+
+public class RenderBench {
+
+    public static void run(Bench bench) {
+        for (int N : new int[]{8, 100}) {
+            BoardPanel panel = new BoardPanel();
+            panel.setSize(800, 800);
+            panel.setBoardSize(N);
+
+            HashMap<Integer, Color> colors = new HashMap<>();
+            HashMap<Integer, BoardView> states = new HashMap<>();
+            Random random = new Random(7);
+            for (int t = 0; t < N; t++) {
+                colors.put(t, Color.getHSBColor(t * 1.0f / N, 0.9f, 0.9f));
+                states.put(t, randomBoard(t, N, random));
+            }
+            panel.updateBoard(states, colors);
+
+            BufferedImage image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+
+            bench.run("render.fullPaint N=" + N + " threads=" + N, () -> {
+                Graphics2D g = image.createGraphics();
+                panel.paint(g);
+                g.dispose();
+                return image.getRGB(0, 0);
+            });
+
+            // One worker's board changes per frame: diff against the stored board and index rebuild
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            HashMap<Integer, BoardView>[] frames = new HashMap[64];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = new HashMap<>();
+                frames[i].put(i % N, randomBoard(i % N, N, random));
+            }
+            bench.run("render.updateBoard N=" + N + " threads=" + N, new java.util.function.LongSupplier() {
+                int step = 0;
+                public long getAsLong() {
+                    panel.updateBoard(frames[step++ & 63], colors);
+                    return step;
+                }
+            });
+        }
+    }
+
+    private static Snapshot randomBoard(int threadId, int N, Random random) {
+        int[] queens = new int[N];
+        for (int row = 0; row < N; row++) {
+            queens[row] = random.nextInt(N + 1) - 1;
+        }
+        return new Snapshot(threadId, queens, 0);
+    }
+}
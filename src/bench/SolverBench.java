@@ -0,0 +1,127 @@
+// Solver hot paths: BitBoard primitives (the replacements for QueenWorker.isSafe/findQueenRow), board verification and
+// the column-batch search per ColumnKernel (scalar vs. vector), whole counts (bitmask search vs. meet in the middle)
+// and the complete first-solution search of one QueenWorker per start row
+
+package bench;
+
+import controller.SnapshotChannel;
+import model.RunConfig;
+import solver.BitBoard;
+import solver.BitmaskSearch;
+import solver.ColumnKernel;
+import solver.ColumnSearch;
+import solver.ExplicitSolution;
+import solver.FrontierCounter;
+import solver.Symmetry;
+import threads.QueenWorker;
+import threads.WorkerCounters;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SolverBench {
+
+    private static final int[] SEARCH_SIZES = {8, 12, 16, 20, 24, 30};
+
+    public static void run(Bench bench, boolean allRows) throws Exception {
+        for (int N : new int[]{8, 32, 100}) {
+            BitBoard board = halfFilledBoard(N);
+            int[] cells = randomCells(N, 1024);
+
+            bench.run("bitboard.isSafe N=" + N, new java.util.function.LongSupplier() {
+                int i = 0;
+                public long getAsLong() {
+                    int cell = cells[i++ & 1023];
+                    return board.isSafe(cell / N, cell % N) ? 1 : 0;
+                }
+            });
+            bench.run("bitboard.nextSafeRow N=" + N, new java.util.function.LongSupplier() {
+                int i = 0;
+                public long getAsLong() {
+                    int cell = cells[i++ & 1023];
+                    return board.nextSafeRow(cell % N, cell / N);
+                }
+            });
+            bench.run("bitboard.queenRow N=" + N, new java.util.function.LongSupplier() {
+                int i = 0;
+                public long getAsLong() {
+                    return board.queenRow(cells[i++ & 1023] % N);
+                }
+            });
+        }
+
+        // Validity of complete boards, 256 boards per op, and the first solution of the column-batch search:
+        // the scalar kernel against the jdk.incubator.vector one (skipped when that module is not resolved)
+        ColumnKernel scalar = ColumnKernel.scalar();
+        ColumnKernel vector = ColumnKernel.vector();
+        if (vector == null) System.out.println("# vector kernels skipped: run with --add-modules jdk.incubator.vector");
+        for (ColumnKernel kernel : vector == null ? new ColumnKernel[]{scalar} : new ColumnKernel[]{scalar, vector}) {
+            for (int N : new int[]{8, 12, 16, 32}) {
+                int[][] boards = validBoards(N, 256);
+                bench.run("verify." + kernel.name() + " x256 N=" + N, () -> 256 - kernel.countInvalid(boards, 256, N));
+            }
+            for (int N : new int[]{16, 20, 24}) {
+                ColumnSearch search = new ColumnSearch(N, kernel);
+                bench.run("column." + kernel.name() + " N=" + N, () -> {
+                    search.solve(new AtomicBoolean(false));
+                    return search.getNodes();
+                });
+            }
+        }
+
+        // Every solution counted on one thread: the plain bitmask search vs. the frontier join
+        ForkJoinPool single = new ForkJoinPool(1);
+        for (int N : new int[]{10, 12, 14}) {
+            bench.run("count.bitmask N=" + N, () -> BitmaskSearch.count(BitmaskSearch.fullMask(N), 0, 0, 0));
+            bench.run("count.frontier N=" + N, () -> new FrontierCounter(N, single, new AtomicBoolean(false),
+                    FrontierCounter.defaultMemoryBudget()).count().getTotal());
+        }
+        single.shutdown();
+
+        // Unpaced, unwatched search: exactly the work a worker does per start row
+        for (int N : SEARCH_SIZES) {
+            int firstRow = allRows ? 0 : N / 2;
+            int lastRow = allRows ? N - 1 : N / 2;
+            for (int row = firstRow; row <= lastRow; row++) {
+                int startRow = row;
+                bench.run("search.firstSolution N=" + N + " startRow=" + startRow, () -> {
+                    SnapshotChannel channel = new SnapshotChannel(1);
+                    new QueenWorker(0, startRow, 0, N, new AtomicBoolean(false), channel,
+                            RunConfig.turbo(0), new AtomicBoolean(false), new WorkerCounters(1)).run();
+                    return channel.getPublishedCount();
+                });
+            }
+        }
+    }
+
+    // count copies of the explicit solution, cycled through their 8 symmetric images
+    private static int[][] validBoards(int N, int count) {
+        int[] solution = ExplicitSolution.forSize(N);
+
+        int[][] boards = new int[count][];
+        for (int i = 0; i < count; i++) {
+            boards[i] = Symmetry.transformCells(solution, i & 7);
+        }
+        return boards;
+    }
+
+    // Queens on every other column, placed at the first safe row
+    private static BitBoard halfFilledBoard(int N) {
+        BitBoard board = new BitBoard(N);
+        for (int col = 0; col < N; col += 2) {
+            int row = board.nextSafeRow(col, 0);
+            if (row >= 0) board.place(row, col);
+        }
+        return board;
+    }
+
+    private static int[] randomCells(int N, int count) {
+        Random random = new Random(42);
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = random.nextInt(N * N);
+        }
+        return cells;
+    }
+}
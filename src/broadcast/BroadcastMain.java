@@ -0,0 +1,76 @@
+// Entry point for watching a live search from other machines:
+//   java -cp out broadcast.BroadcastMain serve N [-port 7421] [-threads n] [-delay ms] [-fps 30]
+//   java -cp out broadcast.BroadcastMain view [-host localhost] [-port 7421]
+// The server runs the animated search once and keeps broadcasting until it finishes; viewers can come and go.
+
+package broadcast;
+
+import controller.ExecutorStrategy;
+import controller.ThreadManager;
+import model.RunConfig;
+import ui.BoardPanel;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+public class BroadcastMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: BroadcastMain serve N [-port p] [-threads n] [-delay ms] [-fps f]");
+            System.err.println("       BroadcastMain view [-host h] [-port p]");
+            System.exit(2);
+        }
+
+        String host = "localhost";
+        int port = FrameFormat.DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int delayMs = RunConfig.DEFAULT_DELAY_MS;
+        int fps = SnapshotServer.DEFAULT_FPS;
+        int N = 8;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-host": host = args[++i]; break;
+                case "-port": port = Integer.parseInt(args[++i]); break;
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-delay": delayMs = Integer.parseInt(args[++i]); break;
+                case "-fps": fps = Integer.parseInt(args[++i]); break;
+                default: N = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (args[0].equals("view")) {
+            view(host, port);
+            return;
+        }
+
+        ThreadManager threadManager = new ThreadManager(threads, ExecutorStrategy.PLATFORM_POOL, false);
+        threadManager.setWatched(true);
+        try (SnapshotServer server = new SnapshotServer(threadManager.getSnapshotChannel(), port, fps)) {
+            System.out.println("broadcasting N=" + N + " with " + threads + " lanes on port " + server.getPort());
+            threadManager.startAll(N, RunConfig.animated(delayMs));
+            while (!threadManager.awaitCompletion(5, TimeUnit.SECONDS)) {
+                System.out.println("viewers=" + server.getClientCount() + " encoded=" + server.getFramesEncoded()
+                        + " sent=" + server.getFramesSent() + " coalesced=" + server.getCoalescedCount());
+            }
+            // Let the viewers get the final boards
+            Thread.sleep(1000);
+            System.out.println("search finished; sent=" + server.getFramesSent());
+        }
+    }
+
+    private static void view(String host, int port) throws Exception {
+        BoardPanel boardPanel = new BoardPanel();
+        ViewerClient client = new ViewerClient(host, port, boardPanel);
+        SwingUtilities.invokeAndWait(() -> {
+            JFrame frame = new JFrame("N-Queens viewer - " + host + ":" + port);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.add(boardPanel);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        });
+        client.start();
+    }
+}
@@ -0,0 +1,85 @@
+// Wire format from SnapshotServer to its viewers: a one-way stream of frames, each a type byte followed by
+// big-endian fields (DataOutputStream).
+//
+//   HELLO  magic "NQLV", lanes                     once, right after the connection is accepted
+//   BOARD  lane, N, timestamp, packed cells        newest board of one lane
+//
+// Cells are packed as in solver.SolutionFile, but hold col + 1 so an empty row (-1) fits: N values of
+// bitsPerRow(N + 1) bits each. A BOARD frame with a different N than the last one starts a new run.
+
+package broadcast;
+
+import model.BoardView;
+import model.Snapshot;
+import solver.SolutionFile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public final class FrameFormat {
+
+    public static final byte HELLO = 1;
+    public static final byte BOARD = 2;
+
+    public static final int MAGIC = 0x4E514C56; // "NQLV"
+    public static final int DEFAULT_PORT = 7421;
+
+    private static final int BOARD_HEADER_BYTES = 1 + 4 + 4 + 8;
+
+    private FrameFormat() {
+    }
+
+    public static void writeHello(DataOutputStream out, int lanes) throws IOException {
+        out.writeByte(HELLO);
+        out.writeInt(MAGIC);
+        out.writeInt(lanes);
+    }
+
+    // Lane count announced by the server
+    public static int readHello(DataInputStream in) throws IOException {
+        if (in.readByte() != HELLO || in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot stream");
+        }
+        return in.readInt();
+    }
+
+    // A complete BOARD frame, encoded once and then shared by every client
+    public static byte[] encodeBoard(int lane, BoardView view) {
+        int N = view.getN();
+        int[] cells = new int[N];
+        for (int row = 0; row < N; row++) {
+            cells[row] = view.getQueen(row) + 1;
+        }
+
+        int bits = SolutionFile.bitsPerRow(N + 1);
+        ByteBuffer frame = ByteBuffer.allocate(BOARD_HEADER_BYTES + cellBytes(N, bits));
+        frame.put(BOARD).putInt(lane).putInt(N).putLong(view.getTimestamp());
+        SolutionFile.pack(cells, bits, frame);
+        return frame.array();
+    }
+
+    // Next BOARD frame as a snapshot (thread id = lane)
+    public static Snapshot readBoard(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type != BOARD) throw new IOException("Unexpected frame type " + type);
+        int lane = in.readInt();
+        int N = in.readInt();
+        long timestamp = in.readLong();
+
+        int bits = SolutionFile.bitsPerRow(N + 1);
+        byte[] packed = new byte[cellBytes(N, bits)];
+        in.readFully(packed);
+        int[] queens = new int[N];
+        SolutionFile.unpack(ByteBuffer.wrap(packed), bits, queens);
+        for (int row = 0; row < N; row++) {
+            queens[row]--;
+        }
+        return new Snapshot(lane, queens, timestamp);
+    }
+
+    private static int cellBytes(int N, int bits) {
+        return (int) (((long) N * bits + 7) / 8);
+    }
+}
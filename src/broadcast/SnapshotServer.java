@@ -0,0 +1,230 @@
+// Broadcasts a ThreadManager's live boards to any number of TCP viewers (see FrameFormat).
+//
+// The server takes the consumer side of the SnapshotChannel: one pump thread drains it at a fixed frame rate,
+// encodes each changed lane once and drops the frame into every client's per-lane latest-value slot. Each
+// connection has its own sender (a virtual thread where available, see ExecutorStrategy) that writes whatever
+// is in its slots when it gets to it. A slow viewer only ever has one frame per lane waiting, newer boards
+// replace older ones, and neither the workers nor the other viewers wait for it.
+//
+// Set the ThreadManager's watched flag before startAll, or the channel has no boards to hand out.
+
+package broadcast;
+
+import controller.ExecutorStrategy;
+import controller.SnapshotChannel;
+import model.BoardView;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class SnapshotServer implements Closeable {
+
+    // Half the local UI's rate: every frame costs a write per viewer, and with hundreds of viewers that adds up
+    public static final int DEFAULT_FPS = 30;
+
+    private static final int SEND_BUFFER_BYTES = 1 << 16;
+
+    private final SnapshotChannel channel;
+    private final int lanes;
+    private final long frameNanos;
+    private final ServerSocket server;
+    private final ExecutorService connections = ExecutorStrategy.VIRTUAL_THREADS.newExecutor(0);
+    private final CopyOnWriteArrayList<Session> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicReferenceArray<byte[]> latestFrames; // newest frame per lane, handed to new viewers
+    private final Thread pumpThread;
+    private volatile boolean running = true;
+
+    private final LongAdder framesEncoded = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SnapshotServer(SnapshotChannel channel, int port) throws IOException {
+        this(channel, port, DEFAULT_FPS);
+    }
+
+    // port 0 picks a free port (see getPort)
+    public SnapshotServer(SnapshotChannel channel, int port, int fps) throws IOException {
+        this.channel = channel;
+        this.lanes = channel.capacity();
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+        this.latestFrames = new AtomicReferenceArray<>(lanes);
+
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(port));
+        connections.execute(this::acceptLoop);
+
+        this.pumpThread = new Thread(this::pump, "snapshot-pump");
+        this.pumpThread.setDaemon(true);
+        this.pumpThread.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getClientCount() {
+        return sessions.size();
+    }
+
+    // Boards taken from the channel (each encoded once, however many viewers there are)
+    public long getFramesEncoded() {
+        return framesEncoded.sum();
+    }
+
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    // Frames replaced in a viewer's slot before its sender got to them, summed over all viewers
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        for (Session session : sessions) {
+            session.close();
+        }
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                Session session = new Session(socket);
+                sessions.add(session);
+                session.seed();
+                connections.execute(session);
+            } catch (IOException e) {
+                if (running) System.err.println("Accepting a viewer failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // The channel's only consumer; never blocks on a viewer
+    private void pump() {
+        HashMap<Integer, BoardView> changed = new HashMap<>();
+        int currentN = -1;
+        long nextFrame = System.nanoTime();
+
+        while (running) {
+            changed.clear();
+            if (channel.drainTo(changed) > 0) {
+                for (Map.Entry<Integer, BoardView> entry : changed.entrySet()) {
+                    int lane = entry.getKey();
+                    BoardView view = entry.getValue();
+                    if (view.getN() != currentN) {
+                        // New run: boards of the old size must not reach viewers that join from now on
+                        currentN = view.getN();
+                        for (int i = 0; i < lanes; i++) {
+                            latestFrames.set(i, null);
+                        }
+                    }
+
+                    byte[] frame = FrameFormat.encodeBoard(lane, view);
+                    framesEncoded.increment();
+                    latestFrames.set(lane, frame);
+                    for (Session session : sessions) {
+                        session.offer(lane, frame);
+                    }
+                }
+                for (Session session : sessions) {
+                    session.wake();
+                }
+            }
+
+            nextFrame += frameNanos;
+            long wait = nextFrame - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                nextFrame = System.nanoTime(); // fell behind, don't try to catch up
+            }
+        }
+    }
+
+    private class Session implements Runnable {
+
+        private final Socket socket;
+        private final AtomicReferenceArray<byte[]> pending = new AtomicReferenceArray<>(lanes);
+        private final Semaphore news = new Semaphore(0);
+
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        // Starts the viewer from the current boards instead of an empty board until each lane moves again.
+        // Called once the pump can see the session, so a frame it offers meanwhile is never overwritten.
+        void seed() {
+            for (int lane = 0; lane < lanes; lane++) {
+                byte[] frame = latestFrames.get(lane);
+                if (frame != null) pending.compareAndSet(lane, null, frame);
+            }
+            news.release();
+        }
+
+        // Pump only
+        void offer(int lane, byte[] frame) {
+            if (pending.getAndSet(lane, frame) != null) coalesced.increment();
+        }
+
+        // Pump only; at most one wake-up is ever outstanding
+        void wake() {
+            if (news.availablePermits() == 0) news.release();
+        }
+
+        @Override
+        public void run() {
+            try (Socket s = socket) {
+                s.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream(), SEND_BUFFER_BYTES));
+                FrameFormat.writeHello(out, lanes);
+                out.flush();
+
+                while (running) {
+                    news.acquire();
+                    news.drainPermits();
+                    int sent = 0;
+                    for (int lane = 0; lane < lanes; lane++) {
+                        byte[] frame = pending.getAndSet(lane, null);
+                        if (frame != null) {
+                            out.write(frame);
+                            sent++;
+                        }
+                    }
+                    out.flush();
+                    framesSent.add(sent);
+                }
+            } catch (IOException | InterruptedException e) {
+                // viewer disconnected or server closing
+            } finally {
+                sessions.remove(this);
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+// Receives a SnapshotServer stream and renders it into a BoardPanel.
+// Like SnapshotConsumer, at most one update waits on the EDT; boards that arrive meanwhile just replace the
+// lane's previous one, so a slow screen never makes the socket back up.
+
+package broadcast;
+
+import controller.ThreadManager;
+import model.BoardView;
+import model.Snapshot;
+import ui.BoardPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ViewerClient implements Closeable {
+
+    private final Socket socket;
+    private final BoardPanel boardPanel;
+    private final AtomicBoolean paintPending = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    private volatile long framesReceived = 0;
+    private Thread readerThread;
+
+    public ViewerClient(String host, int port, BoardPanel boardPanel) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.boardPanel = boardPanel;
+    }
+
+    public void start() {
+        readerThread = new Thread(this::readLoop, "snapshot-viewer");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        socket.close();
+    }
+
+    private void readLoop() {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            HashMap<Integer, Color> colors = ThreadManager.colorsFor(FrameFormat.readHello(in));
+            HashMap<Integer, BoardView> latest = new HashMap<>();
+            int N = -1;
+            long runStart = Long.MIN_VALUE;
+
+            while (running) {
+                Snapshot board = FrameFormat.readBoard(in);
+                framesReceived++;
+
+                if (board.getN() != N) {
+                    // A left-over board of the previous run can still trail the first one of the new run
+                    if (board.getTimestamp() < runStart) continue;
+                    N = board.getN();
+                    runStart = board.getTimestamp();
+                    latest.clear();
+                    int size = N;
+                    SwingUtilities.invokeLater(() -> boardPanel.setBoardSize(size));
+                }
+                latest.put(board.getThreadId(), board);
+
+                // Snapshots are immutable, so a shallow copy is enough to hand over to the EDT
+                if (paintPending.compareAndSet(false, true)) {
+                    HashMap<Integer, BoardView> statesCopy = new HashMap<>(latest);
+                    SwingUtilities.invokeLater(() -> {
+                        boardPanel.updateBoard(statesCopy, colors);
+                        paintPending.set(false);
+                    });
+                }
+            }
+        } catch (EOFException e) {
+            System.out.println("Snapshot server closed the stream");
+        } catch (IOException e) {
+            if (running) System.err.println("Snapshot stream failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+// On-disk cache of results per board size, so a Run for an N we have already solved is answered from disk.
+//
+// Each N has one memory-mapped record file, n<N>.nqc (big-endian):
+//   header (32 bytes): magic "NQSC", version, N, bytes per board, reserved, total count (-1 = unknown),
+//                      fundamental count (-1 = unknown)
+//   N row records:     state byte (UNKNOWN / NO_SOLUTION / SOLVED) + the first solution found from
+//                      (startRow, col 0), packed as in solver.SolutionFile
+// and optionally the full solution set as n<N>.bin in solver.SolutionFile format.
+//
+// The files of all N together stay under maxBytes; the least recently used N is evicted first.
+
+package cache;
+
+import solver.SolutionFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SolutionCache {
+
+    public static final int UNKNOWN = 0;
+    public static final int NO_SOLUTION = 1;
+    public static final int SOLVED = 2;
+
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private static final int MAGIC = 0x4E515343; // "NQSC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int TOTAL_OFFSET = 16;
+    private static final int FUNDAMENTAL_OFFSET = 24;
+
+    private final Path dir;
+    private final long maxBytes;
+
+    // Every N with files on disk, least recently used first; the value is the mapping once it has been opened
+    private final LinkedHashMap<Integer, MappedByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public SolutionCache(Path dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+
+        // Rebuild the LRU order from the last-modified times left by earlier runs
+        Map<Integer, Long> lastUsed = new HashMap<>();
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                int N = parseN(file.getName());
+                if (N > 0) lastUsed.merge(N, file.lastModified(), Math::max);
+            }
+        }
+        List<Integer> byAge = new ArrayList<>(lastUsed.keySet());
+        byAge.sort(Comparator.comparing(lastUsed::get));
+        for (int N : byAge) {
+            entries.put(N, null);
+        }
+    }
+
+    // The cache under ~/.nqueens/cache, overridable with -Dnqueens.cache.dir and -Dnqueens.cache.maxBytes.
+    // Returns null (cache disabled) if the directory cannot be used.
+    public static SolutionCache openDefault() {
+        Path dir = Paths.get(System.getProperty("nqueens.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".nqueens", "cache").toString()));
+        long maxBytes = Long.getLong("nqueens.cache.maxBytes", DEFAULT_MAX_BYTES);
+        try {
+            return new SolutionCache(dir, maxBytes);
+        } catch (IOException e) {
+            System.err.println("Solution cache disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // State of startRow's first solution; when SOLVED the board is decoded into queens (length N)
+    public synchronized int firstSolution(int N, int startRow, int[] queens) {
+        MappedByteBuffer map = lookup(N);
+        if (map == null) return UNKNOWN;
+
+        int record = recordOffset(N, startRow);
+        int state = map.get(record);
+        if (state == SOLVED) {
+            SolutionFile.unpack(map.slice(record + 1, SolutionFile.bytesPerBoard(N)),
+                    SolutionFile.bitsPerRow(N), queens);
+        }
+        return state;
+    }
+
+    // queens == null records that no solution exists with a queen at (startRow, col 0)
+    public synchronized void putFirstSolution(int N, int startRow, int[] queens) {
+        MappedByteBuffer map = lookupOrCreate(N);
+        int record = recordOffset(N, startRow);
+        if (queens != null) {
+            SolutionFile.pack(queens, SolutionFile.bitsPerRow(N), map.slice(record + 1, SolutionFile.bytesPerBoard(N)));
+        }
+        // The state byte goes last, so a torn write leaves the record UNKNOWN rather than corrupt
+        map.put(record, (byte) (queens != null ? SOLVED : NO_SOLUTION));
+    }
+
+    // -1 if unknown
+    public synchronized long total(int N) {
+        MappedByteBuffer map = lookup(N);
+        return map == null ? -1 : map.getLong(TOTAL_OFFSET);
+    }
+
+    // -1 if unknown
+    public synchronized long fundamental(int N) {
+        MappedByteBuffer map = lookup(N);
+        return map == null ? -1 : map.getLong(FUNDAMENTAL_OFFSET);
+    }
+
+    // fundamental < 0 keeps whatever was stored before
+    public synchronized void putCount(int N, long total, long fundamental) {
+        MappedByteBuffer map = lookupOrCreate(N);
+        map.putLong(TOTAL_OFFSET, total);
+        if (fundamental >= 0) map.putLong(FUNDAMENTAL_OFFSET, fundamental);
+        map.force();
+    }
+
+    // The cached full solution set for N (solver.SolutionFile format), or null
+    public synchronized Path solutionSet(int N) {
+        Path path = setPath(N);
+        if (!Files.exists(path)) return null;
+        entries.get(N); // touch
+        touch(path);
+        return path;
+    }
+
+    // Copies a finished solution file into the cache, unless it alone would exceed the size cap
+    public synchronized void putSolutionSet(int N, Path solutionFile) throws IOException {
+        if (Files.size(solutionFile) + recordBytes(N) > maxBytes) return;
+        lookupOrCreate(N);
+        Path tmp = dir.resolve("n" + N + ".bin.tmp");
+        Files.copy(solutionFile, tmp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp, setPath(N), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        evict(N);
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Bytes currently used by all cached N
+    public synchronized long sizeOnDisk() {
+        long size = 0;
+        for (int N : entries.keySet()) {
+            size += sizeOf(N);
+        }
+        return size;
+    }
+
+    // ---- entries ----
+
+    private MappedByteBuffer lookup(int N) {
+        if (!entries.containsKey(N)) return null;
+        MappedByteBuffer map = entries.get(N);
+        if (map != null) return map;
+
+        Path path = recordPath(N);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() != recordBytes(N)) return null;
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordBytes(N));
+        } catch (IOException e) {
+            return null;
+        }
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != N) return null;
+
+        entries.put(N, map);
+        touch(path);
+        return map;
+    }
+
+    private MappedByteBuffer lookupOrCreate(int N) {
+        MappedByteBuffer map = lookup(N);
+        if (map != null) return map;
+
+        Path path = recordPath(N);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordBytes(N));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        map.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, N).putInt(12, SolutionFile.bytesPerBoard(N))
+           .putLong(TOTAL_OFFSET, -1).putLong(FUNDAMENTAL_OFFSET, -1);
+
+        entries.put(N, map);
+        evict(N);
+        return map;
+    }
+
+    // Drops least recently used N (never keep) until everything fits under maxBytes
+    private void evict(int keep) {
+        long size = sizeOnDisk();
+        Iterator<Integer> it = entries.keySet().iterator();
+        while (size > maxBytes && it.hasNext()) {
+            int N = it.next();
+            if (N == keep) continue;
+            size -= sizeOf(N);
+            it.remove();
+            // The mapping stays valid until it is collected; unlinking the file underneath is fine
+            try {
+                Files.deleteIfExists(recordPath(N));
+                Files.deleteIfExists(setPath(N));
+            } catch (IOException e) {
+                System.err.println("Could not evict cached N=" + N + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private long sizeOf(int N) {
+        return recordPath(N).toFile().length() + setPath(N).toFile().length();
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // LRU order across runs is best effort
+        }
+    }
+
+    private Path recordPath(int N) {
+        return dir.resolve("n" + N + ".nqc");
+    }
+
+    private Path setPath(int N) {
+        return dir.resolve("n" + N + ".bin");
+    }
+
+    private static int recordBytes(int N) {
+        return HEADER_BYTES + N * (1 + SolutionFile.bytesPerBoard(N));
+    }
+
+    private static int recordOffset(int N, int startRow) {
+        return HEADER_BYTES + startRow * (1 + SolutionFile.bytesPerBoard(N));
+    }
+
+    // "n12.nqc" / "n12.bin" -> 12, anything else -> -1
+    private static int parseN(String name) {
+        if (!name.startsWith("n") || !(name.endsWith(".nqc") || name.endsWith(".bin"))) return -1;
+        try {
+            return Integer.parseInt(name.substring(1, name.length() - 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
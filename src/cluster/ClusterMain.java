@@ -0,0 +1,59 @@
+// Entry point for multi-process counting on one machine:
+//   java -cp out cluster.ClusterMain coordinator N [-port 7420] [-depth 3] [-lease 10000] [-solutions file]
+//   java -cp out cluster.ClusterMain worker [-host localhost] [-port 7420] [-lanes cores]
+// Start the coordinator, then any number of workers; workers that die are replaced by re-issuing their tasks.
+
+package cluster;
+
+import model.CountResult;
+import solver.SolutionFileWriter;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+public class ClusterMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: ClusterMain coordinator N [-port p] [-depth d] [-lease ms] [-solutions file]");
+            System.err.println("       ClusterMain worker [-host h] [-port p] [-lanes n]");
+            System.exit(2);
+        }
+
+        String host = "localhost";
+        int port = Protocol.DEFAULT_PORT;
+        int depth = Coordinator.DEFAULT_SPLIT_DEPTH;
+        long leaseMs = Coordinator.DEFAULT_LEASE_MS;
+        int lanes = Runtime.getRuntime().availableProcessors();
+        String solutionsFile = null;
+        int N = -1;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-host": host = args[++i]; break;
+                case "-port": port = Integer.parseInt(args[++i]); break;
+                case "-depth": depth = Integer.parseInt(args[++i]); break;
+                case "-lease": leaseMs = Long.parseLong(args[++i]); break;
+                case "-lanes": lanes = Integer.parseInt(args[++i]); break;
+                case "-solutions": solutionsFile = args[++i]; break;
+                default: N = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (args[0].equals("worker")) {
+            int tasks = new ClusterWorker(host, port, lanes, leaseMs / 3).run();
+            System.out.println("worker ran " + tasks + " tasks");
+            return;
+        }
+
+        SolutionFileWriter writer = solutionsFile == null ? null : new SolutionFileWriter(Paths.get(solutionsFile), N);
+        try (Coordinator coordinator = new Coordinator(N, depth, port, leaseMs, writer)) {
+            System.out.println("coordinator for N=" + N + " on port " + coordinator.getPort()
+                    + ", " + coordinator.getTaskCount() + " tasks");
+            CountResult result = coordinator.awaitResult(Long.MAX_VALUE, TimeUnit.DAYS);
+            System.out.println(result + " reissued=" + coordinator.getReissuedCount());
+        } finally {
+            if (writer != null) writer.close();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// Worker process for Coordinator: each lane is one connection that asks for a prefix task, runs the same
+// bitmask search as the in-process counter and sends back the count (and the packed solutions if asked),
+// with a heartbeat every third of the lease so a slow task is not re-issued while it is still running.
+
+package cluster;
+
+import controller.ExecutorStrategy;
+import solver.PrefixTask;
+import solver.SolutionFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ClusterWorker {
+
+    private final String host;
+    private final int port;
+    private final int lanes;
+    private final long heartbeatMs;
+
+    public ClusterWorker(String host, int port, int lanes) {
+        this(host, port, lanes, Coordinator.DEFAULT_LEASE_MS / 3);
+    }
+
+    public ClusterWorker(String host, int port, int lanes, long heartbeatMs) {
+        this.host = host;
+        this.port = port;
+        this.lanes = lanes;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    // Blocks until the coordinator has no more work (or went away); returns the number of tasks this process ran
+    public int run() throws InterruptedException {
+        ExecutorService executor = ExecutorStrategy.PLATFORM_POOL.newExecutor(lanes);
+        ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        int[] tasksRun = new int[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            int laneId = lane;
+            executor.execute(() -> {
+                try {
+                    tasksRun[laneId] = runLane(heartbeats);
+                } catch (IOException e) {
+                    System.err.println("Lane " + laneId + " disconnected: " + e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        heartbeats.shutdownNow();
+
+        int total = 0;
+        for (int n : tasksRun) total += n;
+        return total;
+    }
+
+    private int runLane(ScheduledExecutorService heartbeats) throws IOException {
+        int tasksRun = 0;
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                synchronized (out) {
+                    out.writeByte(Protocol.REQUEST);
+                    out.flush();
+                }
+
+                byte type = in.readByte();
+                if (type == Protocol.DONE) return tasksRun;
+                if (type == Protocol.WAIT) {
+                    sleep(in.readInt());
+                    continue;
+                }
+                if (type != Protocol.TASK) throw new IOException("Unexpected message type " + type);
+
+                int id = in.readInt();
+                int N = in.readInt();
+                int[] rows = new int[in.readInt()];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = in.readInt();
+                }
+                boolean wantSolutions = in.readBoolean();
+
+                ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(() -> {
+                    try {
+                        synchronized (out) {
+                            out.writeByte(Protocol.HEARTBEAT);
+                            out.writeInt(id);
+                            out.flush();
+                        }
+                    } catch (IOException ignored) {
+                        // the lane notices the broken connection itself
+                    }
+                }, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+                PrefixTask task = PrefixTask.fromRows(N, rows);
+                long count;
+                ByteArrayOutputStream packed = new ByteArrayOutputStream();
+                try {
+                    if (wantSolutions) {
+                        long[] boards = new long[1];
+                        ByteBuffer board = ByteBuffer.allocate(SolutionFile.bytesPerBoard(N));
+                        int bitsPerRow = SolutionFile.bitsPerRow(N);
+                        task.enumerate(queens -> {
+                            board.clear();
+                            SolutionFile.pack(queens, bitsPerRow, board);
+                            packed.write(board.array(), 0, board.position());
+                            boards[0]++;
+                        });
+                        count = boards[0];
+                    } else {
+                        count = task.count();
+                    }
+                } finally {
+                    heartbeat.cancel(false);
+                }
+
+                synchronized (out) {
+                    out.writeByte(Protocol.RESULT);
+                    out.writeInt(id);
+                    out.writeLong(count);
+                    out.writeInt(wantSolutions ? (int) count : 0);
+                    packed.writeTo(out);
+                    out.flush();
+                }
+                tasksRun++;
+            }
+        }
+    }
+
+    private static void sleep(int millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for work");
+        }
+    }
+}
@@ -0,0 +1,295 @@
+// Splits a count into prefix tasks and leases them to worker processes over local TCP (see Protocol).
+// A lease expires if its worker stops sending heartbeats or disconnects, and the task goes back into the queue;
+// a result that arrives for a task that is already done is dropped, so re-issued work is never counted twice.
+// Solutions, if requested, are verified (solver.BoardVerifier) and appended to a SolutionFileWriter once their task
+// has been accepted.
+
+package cluster;
+
+import model.CountResult;
+import solver.BoardVerifier;
+import solver.PrefixTask;
+import solver.SolutionFile;
+import solver.SolutionFileWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class Coordinator implements Closeable {
+
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+    public static final long DEFAULT_LEASE_MS = 10_000;
+    private static final int WAIT_MS = 200;
+
+    private final int N;
+    private final List<PrefixTask> tasks;
+    private final long leaseMs;
+    private final SolutionFileWriter solutions; // null -> count only
+
+    // Guarded by this
+    private final Deque<Integer> pending = new ArrayDeque<>();
+    private final Map<Integer, Lease> leases = new HashMap<>();
+    private final boolean[] done;
+    private int doneCount = 0;     // tasks whose result was accepted
+    private int writtenCount = 0;  // ... and whose solutions were written; the run ends when this reaches done.length
+    private long total = 0;
+    private int reissued = 0;
+
+    private final long startNanos = System.nanoTime();
+    private final CompletableFuture<CountResult> result = new CompletableFuture<>();
+    private final ServerSocket server;
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> daemon(r, "coordinator-lane"));
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "lease-reaper"));
+
+    private static class Lease {
+        final Object owner;
+        long expiresAt;
+
+        Lease(Object owner, long expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public Coordinator(int N, int port) throws IOException {
+        this(N, DEFAULT_SPLIT_DEPTH, port, DEFAULT_LEASE_MS, null);
+    }
+
+    // port 0 picks a free port (see getPort); only loopback connections are accepted
+    public Coordinator(int N, int splitDepth, int port, long leaseMs, SolutionFileWriter solutions) throws IOException {
+        this.N = N;
+        this.tasks = PrefixTask.enumerate(N, splitDepth);
+        this.leaseMs = leaseMs;
+        this.solutions = solutions;
+        this.done = new boolean[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            pending.add(i);
+        }
+        if (tasks.isEmpty()) finish();
+
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        connections.execute(this::acceptLoop);
+        reaper.scheduleWithFixedDelay(this::reapExpired, leaseMs / 2, leaseMs / 2, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public synchronized int getDoneCount() {
+        return doneCount;
+    }
+
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    // How many leases expired or were orphaned by a disconnect
+    public synchronized int getReissuedCount() {
+        return reissued;
+    }
+
+    public CountResult awaitResult(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return result.get(timeout, unit);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<CountResult> getResult() {
+        return result;
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    // One worker lane; the lane object itself is the lease owner
+    private void serve(Socket socket) {
+        Object lane = new Object();
+        SolutionFileWriter.Sink sink = solutions == null ? null : solutions.newSink();
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case Protocol.REQUEST:
+                        handOut(lane, out);
+                        break;
+                    case Protocol.HEARTBEAT:
+                        renew(lane, in.readInt());
+                        break;
+                    case Protocol.RESULT:
+                        receive(in, sink);
+                        break;
+                    default:
+                        throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // worker gone (or finished); anything it still held goes back into the queue
+        } finally {
+            release(lane);
+        }
+    }
+
+    private void handOut(Object lane, DataOutputStream out) throws IOException {
+        Integer id;
+        boolean finished;
+        synchronized (this) {
+            id = pending.poll();
+            if (id != null) leases.put(id, new Lease(lane, System.currentTimeMillis() + leaseMs));
+            finished = doneCount == done.length;
+        }
+
+        if (id != null) {
+            int[] rows = tasks.get(id).getRows();
+            out.writeByte(Protocol.TASK);
+            out.writeInt(id);
+            out.writeInt(N);
+            out.writeInt(rows.length);
+            for (int row : rows) {
+                out.writeInt(row);
+            }
+            out.writeBoolean(solutions != null);
+        } else if (finished) {
+            out.writeByte(Protocol.DONE);
+        } else {
+            out.writeByte(Protocol.WAIT);
+            out.writeInt(WAIT_MS);
+        }
+        out.flush();
+    }
+
+    private synchronized void renew(Object lane, int id) {
+        Lease lease = leases.get(id);
+        if (lease != null && lease.owner == lane) {
+            lease.expiresAt = System.currentTimeMillis() + leaseMs;
+        }
+    }
+
+    private void receive(DataInputStream in, SolutionFileWriter.Sink sink) throws IOException {
+        int id = in.readInt();
+        long count = in.readLong();
+        int boards = in.readInt();
+        byte[] packed = new byte[boards * SolutionFile.bytesPerBoard(N)];
+        in.readFully(packed);
+
+        // A lane that sends a board that is not a solution is dropped; its lease is released and the task re-issued
+        if (solutions != null && (boards != count || countInvalid(packed, boards) > 0)) {
+            throw new IOException("Task " + id + " came back with invalid solutions");
+        }
+
+        synchronized (this) {
+            leases.remove(id);
+            if (id < 0 || id >= done.length || done[id]) return; // re-issued task finished twice
+            done[id] = true;
+            doneCount++;
+            pending.remove(id);
+        }
+
+        if (sink != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(packed);
+            int[] queens = new int[N];
+            for (int i = 0; i < boards; i++) {
+                SolutionFile.unpack(buffer, SolutionFile.bitsPerRow(N), queens);
+                sink.visit(queens);
+            }
+        }
+
+        synchronized (this) {
+            total += count;
+            writtenCount++;
+            if (writtenCount == done.length) finish();
+        }
+    }
+
+    private int countInvalid(byte[] packed, int boards) {
+        BoardVerifier verifier = new BoardVerifier(N);
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        int[] queens = new int[N];
+        int invalid = 0;
+        for (int i = 0; i < boards; i++) {
+            SolutionFile.unpack(buffer, SolutionFile.bitsPerRow(N), queens);
+            if (!verifier.check(queens)) invalid++;
+        }
+        return invalid;
+    }
+
+    private synchronized void release(Object lane) {
+        leases.entrySet().removeIf(e -> {
+            if (e.getValue().owner != lane) return false;
+            requeue(e.getKey());
+            return true;
+        });
+    }
+
+    private synchronized void reapExpired() {
+        long now = System.currentTimeMillis();
+        leases.entrySet().removeIf(e -> {
+            if (e.getValue().expiresAt > now) return false;
+            requeue(e.getKey());
+            return true;
+        });
+    }
+
+    private void requeue(int id) {
+        if (!done[id]) {
+            pending.addFirst(id);
+            reissued++;
+        }
+    }
+
+    private void finish() {
+        try {
+            if (solutions != null) solutions.finish();
+            result.complete(new CountResult(N, total, -1, tasks.size(), System.nanoTime() - startNanos));
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reaper.shutdownNow();
+        server.close();
+        connections.shutdownNow();
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -0,0 +1,27 @@
+// Wire format between Coordinator and ClusterWorker: one TCP connection per worker lane, each message a type
+// byte followed by big-endian fields (DataOutputStream). A lane holds at most one task at a time.
+//
+//   worker -> coordinator                      coordinator -> worker
+//   REQUEST                                    TASK   id, N, depth, rows[depth], wantSolutions
+//   HEARTBEAT id                               WAIT   millis (tasks are leased out, some may come back)
+//   RESULT    id, count, boards, packed bytes  DONE   (all tasks finished, disconnect)
+//
+// Solutions are packed as in solver.SolutionFile.
+
+package cluster;
+
+public final class Protocol {
+
+    public static final byte REQUEST = 1;
+    public static final byte HEARTBEAT = 2;
+    public static final byte RESULT = 3;
+
+    public static final byte TASK = 11;
+    public static final byte WAIT = 12;
+    public static final byte DONE = 13;
+
+    public static final int DEFAULT_PORT = 7420;
+
+    private Protocol() {
+    }
+}
@@ -0,0 +1,38 @@
+// How ThreadManager runs its worker lanes
+
+package controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public enum ExecutorStrategy {
+
+    // Fixed pool of platform threads, one per lane; size it to the cores for real runs
+    PLATFORM_POOL,
+
+    // One virtual thread per lane; cheap enough for hundreds of sleeping lanes in animated mode.
+    // On JDKs without virtual threads this falls back to a cached pool of daemon platform threads.
+    VIRTUAL_THREADS;
+
+    public ExecutorService newExecutor(int threads) {
+        if (this == VIRTUAL_THREADS) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newCachedThreadPool(daemonFactory("queen-lane-"));
+            }
+        }
+        return Executors.newFixedThreadPool(threads, daemonFactory("queen-worker-"));
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,118 @@
+// Plays a ReplaySource into a BoardPanel at any speed, the way SnapshotConsumer forwards live runs:
+// a frame loop advances a virtual clock by (real time x speed), applies every step recorded up to it
+// and hands at most one update per frame to the EDT.
+
+package controller;
+
+import model.BoardView;
+import ui.BoardPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+public class ReplayPlayer {
+
+    public final BoardPanel boardPanel;
+    public final ReplaySource source;
+    public final HashMap<Integer, Color> threadColors;
+
+    private final long frameNanos;
+    private final AtomicBoolean playing = new AtomicBoolean(false);
+    private final AtomicBoolean paintPending = new AtomicBoolean(false);
+    private volatile double speed = 1.0;
+    private Thread playerThread;
+
+    public ReplayPlayer(BoardPanel boardPanel, ReplaySource source, HashMap<Integer, Color> threadColors) {
+        this.boardPanel = boardPanel;
+        this.source = source;
+        this.threadColors = threadColors;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / SnapshotConsumer.DEFAULT_FPS;
+    }
+
+    // 1.0 = recorded pace, 10 = ten times faster
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public boolean isPlaying() {
+        return playing.get();
+    }
+
+    public void play() {
+        if (!playing.compareAndSet(false, true)) return;
+
+        playerThread = new Thread(() -> {
+            double clock = source.getTimestamp(); // virtual recording time in ms
+            long last = System.nanoTime();
+            long nextFrame = last;
+
+            boolean dirty = false; // applied steps the board has not shown yet
+
+            while (!Thread.currentThread().isInterrupted()) {
+                if (playing.get()) {
+                    long now = System.nanoTime();
+                    clock += (now - last) / 1e6 * speed;
+                    last = now;
+
+                    long next;
+                    while ((next = source.peekTimestamp()) >= 0 && next <= clock) {
+                        source.next();
+                        dirty = true;
+                    }
+                    if (next < 0) playing.set(false); // end of the recording
+                }
+                if (dirty && show()) dirty = false;
+                if (!playing.get() && !dirty) break;
+
+                nextFrame += frameNanos;
+                long wait = nextFrame - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    nextFrame = System.nanoTime();
+                }
+            }
+        }, "replay");
+        playerThread.setDaemon(true);
+        playerThread.start();
+    }
+
+    public void pause() {
+        playing.set(false);
+        if (playerThread != null) {
+            playerThread.interrupt();
+        }
+    }
+
+    // Jumps to the state after `step` steps and shows it; playing continues from there
+    public void seek(long step) {
+        try {
+            source.seek(step);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean wasPlaying = isPlaying();
+        if (wasPlaying) pause();
+        paintPending.set(false);
+        show();
+        if (wasPlaying) play();
+    }
+
+    // Current state to the board; false (nothing done) while the previous update still waits on the EDT
+    public boolean show() {
+        if (!paintPending.compareAndSet(false, true)) return false;
+        HashMap<Integer, BoardView> states = source.snapshot();
+        HashMap<Integer, Color> colors = new HashMap<>(threadColors);
+        SwingUtilities.invokeLater(() -> {
+            boardPanel.updateBoard(states, colors);
+            paintPending.set(false);
+        });
+        return true;
+    }
+}
@@ -0,0 +1,225 @@
+// Reads a recording made by SnapshotRecorder. The delta log is memory-mapped (in 1 GB windows, which records
+// never straddle); seeking binary-searches the keyframes and then applies at most keyframeEvery steps, so any
+// step is reached in O(log steps) keyframe reads plus a bounded replay.
+
+package controller;
+
+import model.BoardView;
+import model.Snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+public class ReplaySource implements Closeable {
+
+    private static final int WINDOW_SHIFT = 30;
+
+    private final FileChannel deltas;
+    private final FileChannel keys;
+    private final MappedByteBuffer[] windows;
+
+    private final int N;
+    private final int lanes;
+    private final long startMillis;
+    private final long recordCount;
+    private final long stepCount;
+    private final long keyframeBytes;
+    private final long keyframeCount;
+    private final ByteBuffer keyframe;
+
+    private final int[][] boards;
+    private long step = 0;         // steps applied so far
+    private long record = 0;       // next record to apply
+    private long timestamp = 0;    // millis of the last applied step
+
+    public ReplaySource(Path path) throws IOException {
+        this.deltas = FileChannel.open(path, StandardOpenOption.READ);
+        this.keys = FileChannel.open(SnapshotRecorder.keysPath(path), StandardOpenOption.READ);
+
+        ByteBuffer header = ByteBuffer.allocate(SnapshotRecorder.HEADER_BYTES);
+        while (header.hasRemaining() && deltas.read(header, header.position()) > 0) {
+            // read the full header
+        }
+        header.flip();
+        if (header.remaining() < SnapshotRecorder.HEADER_BYTES || header.getInt() != SnapshotRecorder.MAGIC) {
+            throw new IOException("Not a snapshot recording: " + path);
+        }
+        int version = header.getInt();
+        if (version != SnapshotRecorder.VERSION) {
+            throw new IOException("Unsupported recording version " + version);
+        }
+        this.N = header.getInt();
+        this.lanes = header.getInt();
+        header.getInt(); // keyframe spacing, implied by the keyframes themselves
+        header.getInt(); // reserved
+        this.startMillis = header.getLong();
+        long steps = header.getLong();
+        long records = header.getLong();
+
+        long size = deltas.size();
+        this.windows = new MappedByteBuffer[(int) ((size >>> WINDOW_SHIFT) + 1)];
+        for (int i = 0; i < windows.length; i++) {
+            long from = (long) i << WINDOW_SHIFT;
+            windows[i] = deltas.map(FileChannel.MapMode.READ_ONLY, from, Math.min(size - from, 1L << WINDOW_SHIFT));
+        }
+
+        if (records < 0) { // recording was not closed: trust the complete records and count the steps
+            records = (size - SnapshotRecorder.HEADER_BYTES) / SnapshotRecorder.RECORD_BYTES;
+            steps = 0;
+            long lastEnd = 0;
+            for (long r = 0; r < records; r++) {
+                if ((word(r) & SnapshotRecorder.END_OF_STEP) != 0) {
+                    steps++;
+                    lastEnd = r + 1;
+                }
+            }
+            records = lastEnd; // drop a step that was cut off half way
+        }
+        this.recordCount = records;
+        this.stepCount = steps;
+
+        this.keyframeBytes = SnapshotRecorder.KEYFRAME_HEADER_BYTES + 4L * lanes * N;
+        this.keyframe = ByteBuffer.allocate((int) keyframeBytes);
+        long complete = keys.size() / keyframeBytes;
+        // Keyframes past the last complete step (unclosed recording) are unusable
+        long usable = 0;
+        while (usable < complete && keyframeStep(usable) <= stepCount) usable++;
+        this.keyframeCount = usable;
+
+        this.boards = new int[lanes][N];
+        seek(0);
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public synchronized long getStep() {
+        return step;
+    }
+
+    // Milliseconds since the recording started, as of the current step
+    public synchronized long getTimestamp() {
+        return timestamp;
+    }
+
+    // Timestamp of the step next() would apply, or -1 at the end
+    public synchronized long peekTimestamp() {
+        return step < stepCount ? millisOf(record) : -1;
+    }
+
+    // Jumps to the state after `target` steps
+    public synchronized void seek(long target) throws IOException {
+        target = Math.max(0, Math.min(target, stepCount));
+
+        // Last keyframe at or before target
+        long lo = 0, hi = keyframeCount - 1;
+        while (lo < hi) {
+            long mid = (lo + hi + 1) >>> 1;
+            if (keyframeStep(mid) <= target) lo = mid; else hi = mid - 1;
+        }
+        // Moving forward within reach of the current position is cheaper than reloading a keyframe
+        if (!(target >= step && keyframeStep(lo) <= step)) {
+            loadKeyframe(lo);
+        }
+        while (step < target) {
+            next();
+        }
+    }
+
+    // Applies the next step; false at the end of the recording
+    public synchronized boolean next() {
+        if (step >= stepCount) return false;
+        while (record < recordCount) {
+            int word = word(record);
+            long pos = position(record);
+            ByteBuffer window = windows[(int) (pos >>> WINDOW_SHIFT)];
+            int offset = (int) (pos & ((1 << WINDOW_SHIFT) - 1));
+            int lane = word >>> 8;
+            int row = window.getInt(offset + 4);
+            int col = window.getInt(offset + 8);
+            timestamp = window.getInt(offset + 12);
+            record++;
+
+            if (lane < lanes && row < N) {
+                boards[lane][row] = (word & 0x7F) == SnapshotRecorder.PLACE ? col : -1;
+            }
+            if ((word & SnapshotRecorder.END_OF_STEP) != 0) break;
+        }
+        step++;
+        return true;
+    }
+
+    // Copies of every lane's current board, keyed by lane, ready for BoardPanel.updateBoard
+    public synchronized HashMap<Integer, BoardView> snapshot() {
+        HashMap<Integer, BoardView> views = new HashMap<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            views.put(lane, new Snapshot(lane, boards[lane], startMillis + timestamp));
+        }
+        return views;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deltas.close();
+        keys.close();
+    }
+
+    private long position(long r) {
+        return SnapshotRecorder.HEADER_BYTES + r * SnapshotRecorder.RECORD_BYTES;
+    }
+
+    private int word(long r) {
+        long pos = position(r);
+        return windows[(int) (pos >>> WINDOW_SHIFT)].getInt((int) (pos & ((1 << WINDOW_SHIFT) - 1)));
+    }
+
+    private int millisOf(long r) {
+        long pos = position(r) + 12;
+        return windows[(int) (pos >>> WINDOW_SHIFT)].getInt((int) (pos & ((1 << WINDOW_SHIFT) - 1)));
+    }
+
+    private long keyframeStep(long k) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(8);
+        while (head.hasRemaining()) {
+            if (keys.read(head, k * keyframeBytes + head.position()) < 0) throw new IOException("Truncated keyframe");
+        }
+        return head.getLong(0);
+    }
+
+    private void loadKeyframe(long k) throws IOException {
+        keyframe.clear();
+        while (keyframe.hasRemaining()) {
+            if (keys.read(keyframe, k * keyframeBytes + keyframe.position()) < 0) {
+                throw new IOException("Truncated keyframe");
+            }
+        }
+        keyframe.flip();
+        step = keyframe.getLong();
+        record = keyframe.getLong();
+        timestamp = keyframe.getLong();
+        for (int[] board : boards) {
+            for (int row = 0; row < N; row++) {
+                board[row] = keyframe.getInt();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// Latest-value channel between the workers and the UI: one SnapshotRing per worker holding its newest board.
+// Publishing copies into a preallocated slot, never blocks and never fails; a board that is replaced before the
+// consumer reads it is counted as coalesced instead of being silently dropped.
+
+package controller;
+
+import model.BoardView;
+import model.Snapshot;
+
+import java.util.Map;
+
+public class SnapshotChannel {
+
+    private final int numWorkers;
+    private volatile SnapshotRing[] rings;
+    private long coalescedBefore = 0; // from rings discarded by reset()
+    private long publishedBefore = 0;
+    private volatile long consumerLagMillis = 0; // age of the oldest board handed out by the last drain
+    private volatile SnapshotRecorder recorder;   // null unless the run is being recorded
+
+    public SnapshotChannel(int numWorkers) {
+        this.numWorkers = numWorkers;
+        this.rings = new SnapshotRing[0];
+    }
+
+    // Preallocates the boards for a run on an N x N board. Call before the workers start.
+    public synchronized void reset(int N) {
+        publishedBefore = getPublishedCount();
+        coalescedBefore = getCoalescedCount();
+
+        SnapshotRing[] fresh = new SnapshotRing[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            fresh[i] = new SnapshotRing(i, N);
+        }
+        rings = fresh;
+    }
+
+    // The ring a worker should publish into for the current run, or null once the channel was cleared.
+    // Workers grab it when they start, so a worker left over from a previous run can never write into a new ring.
+    public SnapshotRing ring(int threadId) {
+        SnapshotRing[] current = rings;
+        return threadId < current.length ? current[threadId] : null;
+    }
+
+    // Called by worker threadId only; copies queens. Returns true if an unread board was replaced.
+    public boolean publish(int threadId, int[] queens, long timestamp) {
+        SnapshotRing ring = ring(threadId);
+        return ring != null && ring.publish(queens, timestamp);
+    }
+
+    // Every step of every lane goes to the recorder, watched or not
+    public void setRecorder(SnapshotRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public SnapshotRecorder getRecorder() {
+        return recorder;
+    }
+
+    public boolean publish(Snapshot snapshot) {
+        return publish(snapshot.getThreadId(), snapshot.getQueens(), snapshot.getTimestamp());
+    }
+
+    // Consumer only. Puts a view of every worker's newest unread board into latestStates and returns how many
+    // workers had news. A view stays valid until the next drainTo, so consumers must be done with it by then.
+    public int drainTo(Map<Integer, BoardView> latestStates) {
+        SnapshotRing[] current = rings;
+        int changed = 0;
+        long now = System.currentTimeMillis();
+        long lag = 0;
+        for (int i = 0; i < current.length; i++) {
+            BoardView view = current[i].poll();
+            if (view != null) {
+                latestStates.put(i, view);
+                lag = Math.max(lag, now - view.getTimestamp());
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            consumerLagMillis = lag;
+        }
+        return changed;
+    }
+
+    public synchronized void clear() {
+        publishedBefore = getPublishedCount();
+        coalescedBefore = getCoalescedCount();
+        rings = new SnapshotRing[0];
+    }
+
+    public int capacity() {
+        return numWorkers;
+    }
+
+    // Workers whose newest board is still waiting for the consumer
+    public int getPendingCount() {
+        int pending = 0;
+        for (SnapshotRing ring : rings) {
+            if (ring.hasUnread()) pending++;
+        }
+        return pending;
+    }
+
+    public long getConsumerLagMillis() {
+        return consumerLagMillis;
+    }
+
+    public long getPublishedCount() {
+        long total = publishedBefore;
+        for (SnapshotRing ring : rings) {
+            total += ring.getPublishedCount();
+        }
+        return total;
+    }
+
+    public long getCoalescedCount() {
+        long total = coalescedBefore;
+        for (SnapshotRing ring : rings) {
+            total += ring.getCoalescedCount();
+        }
+        return total;
+    }
+}
@@ -1,30 +1,40 @@
 package controller;
 
-import model.Snapshot;
+import model.BoardView;
 import ui.BoardPanel;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 public class SnapshotConsumer {
 
+    public static final int DEFAULT_FPS = 60;
+
     public BoardPanel boardPanel;
-    public BlockingQueue<Snapshot> queue;
+    public SnapshotChannel channel;
     public HashMap<Integer, Color> threadColors;
     public AtomicBoolean is_Running;
-    public HashMap latestStates;
+    public HashMap<Integer, BoardView> latestStates;
 
+    private final long frameNanos;
+    private final AtomicBoolean paintPending = new AtomicBoolean(false); // an update is still queued on the EDT
     private Thread consumerThread;
 
-    public SnapshotConsumer(BoardPanel boardPanel, BlockingQueue<Snapshot> queue, HashMap<Integer, Color> threadColors) {
+    public SnapshotConsumer(BoardPanel boardPanel, SnapshotChannel channel, HashMap<Integer, Color> threadColors) {
+        this(boardPanel, channel, threadColors, DEFAULT_FPS);
+    }
+
+    public SnapshotConsumer(BoardPanel boardPanel, SnapshotChannel channel, HashMap<Integer, Color> threadColors, int fps) {
         this.boardPanel = boardPanel;
-        this.queue = queue;
+        this.channel = channel;
         this.threadColors = threadColors;
         this.is_Running = new AtomicBoolean(false);
-        latestStates = new HashMap<Integer, Snapshot>();
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+        latestStates = new HashMap<Integer, BoardView>();
     }
 
     public void startConsuming() {
@@ -33,23 +43,35 @@ public class SnapshotConsumer {
         
         this.is_Running.set(true);
         latestStates.clear();
+        paintPending.set(false);
 
         consumerThread = new Thread(() -> {
-            try{
-                while(is_Running.get()) {
-                    Snapshot snapshot = queue.take(); // BLOCKING -> no busy waiting
-                    latestStates.put(snapshot.getThreadId(), snapshot);
+            long nextFrame = System.nanoTime();
+
+            while (is_Running.get() && !Thread.currentThread().isInterrupted()) {
+                // At most one update per frame, and never more than one waiting on the EDT.
+                // Views from the channel are only valid until the next drain, so don't drain while the EDT
+                // may still be copying the previous ones.
+                if (!paintPending.get() && channel.drainTo(latestStates) > 0) {
+                    paintPending.set(true);
 
                     // Create a copy for thread safety
-                    HashMap<Integer, Snapshot> statesCopy = new HashMap<>(latestStates);
+                    HashMap<Integer, BoardView> statesCopy = new HashMap<>(latestStates);
                     HashMap<Integer, Color> colorsCopy = new HashMap<>(threadColors);
-                    
+
                     SwingUtilities.invokeLater(() -> {
                         boardPanel.updateBoard(statesCopy, colorsCopy);
+                        paintPending.set(false);
                     });
                 }
-            } catch(InterruptedException e) {
-                Thread.currentThread().interrupt();
+
+                nextFrame += frameNanos;
+                long wait = nextFrame - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    nextFrame = System.nanoTime(); // fell behind, don't try to catch up
+                }
             }
         });
 
@@ -66,4 +88,9 @@ public class SnapshotConsumer {
 
         latestStates.clear();
     }
+
+    // Snapshots that were overwritten by a newer one before this consumer got to them
+    public long getCoalescedCount() {
+        return channel.getCoalescedCount();
+    }
 }
@@ -0,0 +1,180 @@
+// Records the snapshot stream of a run as deltas, so it can be replayed and inspected afterwards (ReplaySource).
+//
+// <path> holds a 48-byte header and then one 16-byte record per changed row:
+//   int  threadId << 8 | op (PLACE / REMOVE, | END_OF_STEP on the last record of a step)
+//   int  row
+//   int  col (for REMOVE: the column the queen left)
+//   int  milliseconds since the recording started
+// A step is one board a lane moved to that differs from its previous one. Every placement and removal is recorded,
+// whatever the run mode samples for display, so a recording can be stepped through move by move; storage grows
+// with the number of steps (16 bytes each), not steps x N.
+// <path>.keys holds a keyframe (every lane's full board) every keyframeEvery steps, starting with the empty
+// boards at step 0: long step, long record index, long millis, then lanes x N ints. Keyframes are spaced so
+// they never take more room than the deltas between them.
+
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class SnapshotRecorder implements Closeable {
+
+    public static final int MAGIC = 0x4E51524C; // "NQRL"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 48;
+    public static final int RECORD_BYTES = 16;
+    public static final int KEYFRAME_HEADER_BYTES = 24;
+    public static final int DEFAULT_KEYFRAME_STEPS = 1024;
+
+    public static final int PLACE = 1;
+    public static final int REMOVE = 2;
+    public static final int END_OF_STEP = 0x80;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final int N;
+    private final int lanes;
+    private final int keyframeEvery;
+    private final long startMillis = System.currentTimeMillis();
+    private final int[][] boards; // last recorded board per lane
+
+    private final FileChannel deltas;
+    private final FileChannel keys;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final ByteBuffer keyframe;
+
+    private long steps = 0;
+    private long records = 0;
+    private boolean closed = false;
+
+    public SnapshotRecorder(Path path, int N, int lanes) throws IOException {
+        this.N = N;
+        this.lanes = lanes;
+        // At least one 16-byte record per step, so a 4 * lanes * N byte keyframe every lanes * N / 4 steps
+        // costs no more than the deltas
+        this.keyframeEvery = (int) Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_KEYFRAME_STEPS, (long) lanes * N / 4));
+        this.boards = new int[lanes][N];
+        for (int[] board : boards) {
+            Arrays.fill(board, -1);
+        }
+        this.keyframe = ByteBuffer.allocateDirect(KEYFRAME_HEADER_BYTES + 4 * lanes * N);
+
+        this.deltas = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.keys = FileChannel.open(keysPath(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(-1, -1); // patched on close; a reader of an unclosed recording counts for itself
+        writeKeyframe(0);
+    }
+
+    public static Path keysPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".keys");
+    }
+
+    // Called from Pacer on the worker's thread for every step and every emitted board; boards identical to the
+    // lane's previous one are skipped
+    public synchronized void record(int threadId, int[] queens, long timestampMillis) {
+        if (closed || threadId >= lanes || queens.length != N) return;
+
+        int[] board = boards[threadId];
+        int millis = (int) Math.max(0, timestampMillis - startMillis);
+        int lastRecordPosition = -1;
+        try {
+            for (int row = 0; row < N; row++) {
+                int col = queens[row];
+                if (col == board[row]) continue;
+
+                if (buffer.remaining() < RECORD_BYTES) {
+                    // Keep the step's last record in the buffer so its END_OF_STEP flag can still be set
+                    lastRecordPosition = flushKeepingLast(lastRecordPosition);
+                }
+                lastRecordPosition = buffer.position();
+                buffer.putInt(threadId << 8 | (col >= 0 ? PLACE : REMOVE));
+                buffer.putInt(row);
+                buffer.putInt(col >= 0 ? col : board[row]);
+                buffer.putInt(millis);
+                board[row] = col;
+                records++;
+            }
+            if (lastRecordPosition < 0) return; // nothing changed
+
+            buffer.put(lastRecordPosition + 3, (byte) (buffer.get(lastRecordPosition + 3) | END_OF_STEP));
+            steps++;
+            if (steps % keyframeEvery == 0) {
+                flush();
+                writeKeyframe(millis);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized long getStepCount() {
+        return steps;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        flush();
+        writeHeader(steps, records);
+        deltas.force(false);
+        deltas.close();
+        keys.close();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            deltas.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Writes out everything but the record at lastRecordPosition and moves that one to the buffer's start
+    private int flushKeepingLast(int lastRecordPosition) throws IOException {
+        if (lastRecordPosition < 0) {
+            flush();
+            return -1;
+        }
+        buffer.limit(buffer.position()).position(0);
+        ByteBuffer head = buffer.duplicate();
+        head.limit(lastRecordPosition);
+        while (head.hasRemaining()) {
+            deltas.write(head);
+        }
+        buffer.position(lastRecordPosition);
+        buffer.compact();
+        return 0;
+    }
+
+    private void writeHeader(long steps, long records) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(N).putInt(lanes).putInt(keyframeEvery).putInt(0)
+              .putLong(startMillis).putLong(steps).putLong(records);
+        header.flip();
+        deltas.write(header, 0);
+        if (deltas.position() < HEADER_BYTES) deltas.position(HEADER_BYTES);
+    }
+
+    private void writeKeyframe(int millis) throws IOException {
+        keyframe.clear();
+        keyframe.putLong(steps).putLong(records).putLong(millis);
+        for (int[] board : boards) {
+            for (int col : board) {
+                keyframe.putInt(col);
+            }
+        }
+        keyframe.flip();
+        while (keyframe.hasRemaining()) {
+            keys.write(keyframe);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// Allocation-free single-producer/single-consumer ring of preallocated boards for one worker.
+// The ring has three slots: the producer owns one (back), the consumer owns one (front) and the third holds
+// the newest published board. Publishing swaps back with the middle slot, reading swaps front with it, so
+// neither side ever waits for the other or writes a board the other side is still reading.
+
+package controller;
+
+import model.BoardView;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnapshotRing {
+
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4; // set while the middle slot holds a board the consumer hasn't seen
+
+    private final Slot[] slots = new Slot[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // producer side only
+    private int front = 2; // consumer side only
+
+    private volatile long published = 0; // written by the producer only
+    private long lastReadSequence = -1;  // consumer side only
+    private long coalesced = 0;          // consumer side only
+
+    public SnapshotRing(int threadId, int N) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(threadId, N);
+        }
+    }
+
+    // Producer: copies the board into the free slot and makes it the newest one.
+    // Returns true if it replaced a board the consumer never saw.
+    public boolean publish(int[] queens, long timestamp) {
+        Slot slot = slots[back];
+        System.arraycopy(queens, 0, slot.queens, 0, slot.queens.length);
+        slot.timestamp = timestamp;
+        slot.sequence = published;
+        published = published + 1;
+
+        int previous = middle.getAndSet(back | FRESH);
+        back = previous & INDEX_MASK;
+        return (previous & FRESH) != 0;
+    }
+
+    // Consumer: newest board since the last call, or null if nothing was published in between.
+    // The returned view stays untouched until the next successful poll().
+    public BoardView poll() {
+        if ((middle.get() & FRESH) == 0) return null;
+
+        front = middle.getAndSet(front) & INDEX_MASK;
+        Slot slot = slots[front];
+        coalesced += slot.sequence - lastReadSequence - 1;
+        lastReadSequence = slot.sequence;
+        return slot;
+    }
+
+    // True while the newest board hasn't been read yet
+    public boolean hasUnread() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    public long getPublishedCount() {
+        return published;
+    }
+
+    // Boards that were overwritten before the consumer read them
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    private static class Slot implements BoardView {
+
+        private final int threadId;
+        private final int[] queens;
+        private long timestamp;
+        private long sequence;
+
+        Slot(int threadId, int N) {
+            this.threadId = threadId;
+            this.queens = new int[N];
+        }
+
+        public int getThreadId() {
+            return threadId;
+        }
+
+        public int getN() {
+            return queens.length;
+        }
+
+        public int getQueen(int row) {
+            return queens[row];
+        }
+
+        public void copyQueensInto(int[] dst) {
+            System.arraycopy(queens, 0, dst, 0, queens.length);
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
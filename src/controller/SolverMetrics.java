@@ -0,0 +1,122 @@
+// Live metrics for one ThreadManager: worker counters, rates and snapshot pipeline health.
+// Rates are computed from counter deltas between samples taken at most every SAMPLE_MS,
+// so JMX clients and the UI overlay can poll as often as they like.
+// Each instance registers under its own name (OBJECT_NAME plus ",id=n"), so several managers in one JVM
+// don't take over each other's MBean.
+
+package controller;
+
+import threads.WorkerCounters;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SolverMetrics implements SolverMetricsMBean {
+
+    public static final String OBJECT_NAME = "nqueens:type=SolverMetrics";
+    private static final long SAMPLE_MS = 250;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final WorkerCounters counters;
+    private final SnapshotChannel channel;
+    private final String objectName = OBJECT_NAME + ",id=" + NEXT_ID.incrementAndGet();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long[] lastLaneNodes;
+    private double[] laneRates;
+
+    public SolverMetrics(WorkerCounters counters, SnapshotChannel channel) {
+        this.counters = counters;
+        this.channel = channel;
+        this.lastLaneNodes = new long[counters.getLanes()];
+        this.laneRates = new double[counters.getLanes()];
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            // Metrics are best effort; a missing MBean must not stop a run
+            System.err.println("Could not register " + objectName + ": " + e);
+        }
+    }
+
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not unregister " + objectName + ": " + e);
+        }
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        if (elapsed < SAMPLE_MS * 1_000_000L) return;
+
+        for (int lane = 0; lane < lastLaneNodes.length; lane++) {
+            long nodes = counters.get(lane, WorkerCounters.PLACEMENTS) + counters.get(lane, WorkerCounters.BACKTRACKS);
+            laneRates[lane] = (nodes - lastLaneNodes[lane]) * 1e9 / elapsed;
+            lastLaneNodes[lane] = nodes;
+        }
+        lastSampleNanos = now;
+    }
+
+    public long getPlacements() {
+        return counters.sum(WorkerCounters.PLACEMENTS);
+    }
+
+    public long getBacktracks() {
+        return counters.sum(WorkerCounters.BACKTRACKS);
+    }
+
+    public long getSolutions() {
+        return counters.sum(WorkerCounters.SOLUTIONS);
+    }
+
+    public synchronized double getNodesPerSecond() {
+        sample();
+        double total = 0;
+        for (double rate : laneRates) total += rate;
+        return total;
+    }
+
+    public synchronized double[] getLaneNodesPerSecond() {
+        sample();
+        return laneRates.clone();
+    }
+
+    public long getSnapshotsEmitted() {
+        return counters.sum(WorkerCounters.SNAPSHOTS_EMITTED);
+    }
+
+    public long getSnapshotsDropped() {
+        return counters.sum(WorkerCounters.SNAPSHOTS_DROPPED);
+    }
+
+    public long getSnapshotsCoalesced() {
+        return channel.getCoalescedCount();
+    }
+
+    public int getQueueDepth() {
+        return channel.getPendingCount();
+    }
+
+    public long getConsumerLagMillis() {
+        return channel.getConsumerLagMillis();
+    }
+}
@@ -0,0 +1,25 @@
+package controller;
+
+// JMX view of a ThreadManager's run, registered as nqueens:type=SolverMetrics,id=n
+public interface SolverMetricsMBean {
+
+    long getPlacements();
+
+    long getBacktracks();
+
+    long getSolutions();
+
+    double getNodesPerSecond();
+
+    double[] getLaneNodesPerSecond();
+
+    long getSnapshotsEmitted();
+
+    long getSnapshotsDropped();
+
+    long getSnapshotsCoalesced();
+
+    int getQueueDepth();
+
+    long getConsumerLagMillis();
+}
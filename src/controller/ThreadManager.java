@@ -2,81 +2,479 @@
 
 package controller;
 
-import model.Snapshot;
+import cache.SolutionCache;
+import model.CountResult;
+import model.Engine;
+import model.Progress;
+import model.RunConfig;
+import model.RunMode;
+import solver.CheckpointedCounter;
+import solver.FrontierCounter;
+import solver.ProgressEstimator;
+import solver.SolutionCounter;
+import solver.SolutionFileReader;
+import solver.SolutionFileWriter;
+import solver.SolutionStore;
+import solver.TreeEstimator;
+import threads.MinConflictsWorker;
+import threads.Pacer;
 import threads.QueenWorker;
+import threads.RaceWorker;
+import threads.WorkerCounters;
 
 import java.awt.*;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Map;
-import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ThreadManager {
 
     public final int numThreads;
-    public final BlockingQueue<Snapshot> snapshotQueue;
-    public final List<Thread> threads;
+    public final ExecutorStrategy executorStrategy;
+    public final SnapshotChannel snapshotChannel;
+    public ExecutorService executor;
+    public final WorkerCounters counters;
+    public final SolverMetrics metrics;
     public AtomicBoolean stopFlag;
-    public HashMap<Integer, Color> threadColorMap;
+    public AtomicBoolean watched; // set while a consumer drains snapshotChannel; workers skip snapshots otherwise
+    public HashMap<Integer, Color> threadColorMap; // built on first use, so headless runs never load AWT
+    public RunConfig runConfig;
+    public Engine engine;
+    public final AtomicReference<int[]> solution; // placement found by the min-conflicts engine
+    public SolutionCache cache; // null -> every run solves from scratch
+    public volatile ProgressEstimator progress; // current run's estimate, null for engines it does not cover
 
-    private Color generateDistinctColor(int threadId) {
-        float hue = (threadId * 1.0f / this.numThreads);
+    // Pending units get more probes while a run goes on; one daemon thread serves every manager
+    private static final ScheduledExecutorService REFINER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "progress-refiner");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final long REFINE_MS = 1000;
+    private ScheduledFuture<?> refining;
+    private Path recordTo;          // set by startRecording: the next runs are recorded there
+
+    private static Color generateDistinctColor(int threadId, int numThreads) {
+        float hue = (threadId * 1.0f / numThreads);
         float saturation = 0.9f;
         float brightness = 0.9f;
         return Color.getHSBColor(hue, saturation, brightness);
     }
 
+    // The lane colors a manager with numThreads lanes uses (also for replaying its recordings)
+    public static HashMap<Integer, Color> colorsFor(int numThreads) {
+        HashMap<Integer, Color> colors = new HashMap<Integer, Color>();
+        for (int i = 0; i < numThreads; i++) {
+            colors.put(i, generateDistinctColor(i, numThreads));
+        }
+        return colors;
+    }
+
     public ThreadManager(int numThreads) {
+        this(numThreads, ExecutorStrategy.PLATFORM_POOL);
+    }
+
+    // numThreads is the number of worker lanes (and colors), independent of the board size
+    public ThreadManager(int numThreads, ExecutorStrategy executorStrategy) {
+        this(numThreads, executorStrategy, true);
+    }
+
+    // registerMetrics = false skips JMX (and its startup cost), e.g. for short-lived headless runs
+    public ThreadManager(int numThreads, ExecutorStrategy executorStrategy, boolean registerMetrics) {
         this.numThreads = numThreads;
-        this.threads = new ArrayList<>();
+        this.executorStrategy = executorStrategy;
         this.stopFlag = new AtomicBoolean(false);
-        this.snapshotQueue = new LinkedBlockingQueue<>(numThreads);
-        this.threadColorMap = new HashMap<Integer, Color>();
-        for (int i = 0; i < numThreads; i++) {
-            threadColorMap.put(i, generateDistinctColor(i));
+        this.watched = new AtomicBoolean(false);
+        this.runConfig = RunConfig.defaults(RunMode.ANIMATED);
+        this.engine = Engine.BACKTRACKING;
+        this.solution = new AtomicReference<>();
+        this.snapshotChannel = new SnapshotChannel(numThreads);
+        this.counters = new WorkerCounters(numThreads);
+        this.metrics = new SolverMetrics(counters, snapshotChannel);
+        if (registerMetrics) {
+            this.metrics.register();
         }
     }
 
+    public void startAll(int N, RunConfig config) {
+        this.runConfig = config;
+        startAll(N);
+    }
+
+    public void startAll(int N, RunConfig config, Engine engine) {
+        this.engine = engine;
+        startAll(N, config);
+    }
+
     public void startAll(int N) {
         // Clear any existing threads first
         stopAll();
         
         this.stopFlag.set(false);
-        this.threads.clear();
-        this.snapshotQueue.clear();
+        this.solution.set(null);
+        // Only preallocate snapshot boards if someone watches; huge min-conflicts boards are never drawn
+        this.snapshotChannel.reset(watched.get() ? N : 0);
+
+        if (recordTo != null) {
+            try {
+                snapshotChannel.setRecorder(new SnapshotRecorder(recordTo, N, numThreads));
+            } catch (IOException e) {
+                System.err.println("Not recording to " + recordTo + ": " + e.getMessage());
+            }
+        }
+
+        RunConfig config = this.runConfig;
+        this.executor = executorStrategy.newExecutor(numThreads);
+
+        if (engine == Engine.RACE) {
+            trackProgress(null); // the race stops at the first solution, there is no total to estimate
+            long baseSeed = ThreadLocalRandom.current().nextLong();
+            for (int thId = 0; thId < numThreads; thId++) {
+                executor.execute(new RaceWorker(thId, N, RaceWorker.portfolio(thId), baseSeed + thId,
+                        this.stopFlag, this.solution, this.snapshotChannel, config, this.watched, this.counters));
+            }
+            executor.shutdown();
+            return;
+        }
+
+        if (engine == Engine.MIN_CONFLICTS) {
+            trackProgress(null); // no tree to estimate
+            long baseSeed = ThreadLocalRandom.current().nextLong();
+            for (int thId = 0; thId < numThreads; thId++) {
+                executor.execute(new MinConflictsWorker(thId, numThreads, N, baseSeed, this.stopFlag, this.solution,
+                        this.snapshotChannel, config, this.watched, this.counters));
+            }
+            executor.shutdown();
+            return;
+        }
+
+        // Each lane stops at the first solution of its start row, so the count-all tree says nothing about the
+        // work left; only the counting runs get an estimate
+        trackProgress(null);
+
+        // Every first-column row is a task; each lane keeps taking the next one until none are left
+        ConcurrentLinkedQueue<Integer> startRows = new ConcurrentLinkedQueue<>();
+        for (int row = 0; row < N; row++) {
+            startRows.add(row);
+        }
 
         for (int thId = 0; thId < numThreads; thId++) {
-            int strt_row = thId;
+            int laneId = thId;
             int strt_col = 0;
 
-            QueenWorker worker = new QueenWorker(thId, strt_row, strt_col, N, this.stopFlag, this.snapshotQueue);
+            executor.execute(() -> {
+                int[] cached = new int[N];
+                Integer strt_row;
+                while (!stopFlag.get() && !Thread.currentThread().isInterrupted()
+                        && (strt_row = startRows.poll()) != null) {
+                    // Start rows solved by an earlier run are shown straight from the cache
+                    if (serveCached(laneId, N, strt_row, cached, config)) continue;
+
+                    QueenWorker worker = new QueenWorker(laneId, strt_row, strt_col, N, this.stopFlag,
+                            this.snapshotChannel, config, this.watched, this.counters);
+                    worker.run();
+                    storeInCache(N, strt_row, worker);
+                }
+            });
+        }
+        executor.shutdown(); // no more tasks; the lanes finish on their own
+    }
+
+    private boolean serveCached(int laneId, int N, int startRow, int[] queens, RunConfig config) {
+        SolutionCache cache = this.cache;
+        if (cache == null) return false;
+
+        int state = cache.firstSolution(N, startRow, queens);
+        if (state == SolutionCache.UNKNOWN) return false;
 
-            Thread new_thread = new Thread(worker);
-            threads.add(new_thread);
-            new_thread.start();
+        Pacer pacer = new Pacer(laneId, config, this.watched, this.counters, this.snapshotChannel);
+        pacer.start();
+        if (state == SolutionCache.SOLVED) {
+            pacer.count(WorkerCounters.SOLUTIONS);
+        } else {
+            // Same final board a worker leaves behind when the start row has no solution
+            Arrays.fill(queens, -1);
+            queens[startRow] = 0;
+        }
+        pacer.emit(queens, state == SolutionCache.SOLVED ? "SOLUTION" : "TERMINATED");
+        return true;
+    }
+
+    private void trackProgress(ProgressEstimator estimator) {
+        if (refining != null) refining.cancel(false);
+        this.progress = estimator;
+        if (estimator != null) {
+            refining = REFINER.scheduleWithFixedDelay(() -> {
+                if (!estimator.isDone()) estimator.refine(ProgressEstimator.DEFAULT_PROBE_BUDGET / 4);
+            }, REFINE_MS, REFINE_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Percent done, estimated size and ETA of the current run; null if no run is being tracked
+    public Progress getProgress() {
+        ProgressEstimator estimator = this.progress;
+        if (estimator == null) return null;
+        return estimator.progress();
+    }
+
+    // Before committing cores: estimated size of a full count for N and how long numThreads lanes would take
+    public Progress estimate(int N) {
+        TreeEstimator.Estimate tree = TreeEstimator.estimate(N, TreeEstimator.DEFAULT_PROBES,
+                ThreadLocalRandom.current().nextLong());
+        double rate = TreeEstimator.measureNodesPerSecond(N, 200, ThreadLocalRandom.current().nextLong())
+                * Math.min(numThreads, Runtime.getRuntime().availableProcessors());
+        return new Progress((long) tree.getNodes(), 0, 0, 1, tree.getStandardError() / tree.getNodes(),
+                0, (long) (tree.getNodes() / rate * 1000));
+    }
+
+    private void storeInCache(int N, int startRow, QueenWorker worker) {
+        SolutionCache cache = this.cache;
+        if (cache == null) return;
+
+        if (worker.getSolution() != null) {
+            cache.putFirstSolution(N, startRow, worker.getSolution());
+        } else if (worker.isExhausted()) {
+            cache.putFirstSolution(N, startRow, null);
+        } // stopped half way: nothing learned
+    }
+
+    // Blocks until every start row of the current run has been searched (or the run was stopped)
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        ExecutorService current = this.executor;
+        return current == null || current.awaitTermination(timeout, unit);
+    }
+
+    // Headless count of every solution for N on a work-stealing pool.
+    // Blocks until done; stopAll() from another thread cancels it and the partial total is returned.
+    public CountResult countAll(int N) {
+        return countAll(N, false);
+    }
+
+    // With useSymmetry only half of column 0 is searched and fundamental solutions are reported as well
+    public CountResult countAll(int N, boolean useSymmetry) {
+        stopAll();
+        this.stopFlag.set(false);
+
+        SolutionCache cache = this.cache;
+        if (cache != null) {
+            long total = cache.total(N);
+            long fundamental = cache.fundamental(N);
+            if (total >= 0 && (!useSymmetry || fundamental >= 0)) {
+                return new CountResult(N, total, useSymmetry ? fundamental : -1, 0, 0);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            SolutionCounter counter = new SolutionCounter(N, SolutionCounter.DEFAULT_SPLIT_DEPTH, pool,
+                    this.stopFlag, useSymmetry);
+            trackProgress(counter.getProgress());
+            CountResult result = counter.count();
+            if (cache != null && !stopFlag.get()) {
+                cache.putCount(N, result.getTotal(), result.getFundamental());
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Headless count by meeting in the middle (see solver.FrontierCounter): faster than countAll from about N = 16,
+    // paid for in heap. memoryBudget caps the bytes held at once; over it the count takes several passes.
+    // Blocks until done; stopAll() from another thread cancels it and the partial total is returned.
+    public CountResult countFrontier(int N, long memoryBudget) {
+        stopAll();
+        this.stopFlag.set(false);
+
+        SolutionCache cache = this.cache;
+        if (cache != null && cache.total(N) >= 0) {
+            return new CountResult(N, cache.total(N), -1, 0, 0);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            trackProgress(null); // no prefix tasks to estimate
+            CountResult result = new FrontierCounter(N, pool, this.stopFlag, memoryBudget).count();
+            if (cache != null && !stopFlag.get()) {
+                cache.putCount(N, result.getTotal(), -1);
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Resumable headless count: progress is kept in the checkpoint file, so after stopAll() or a killed JVM
+    // the same call picks up where it left off. Blocks until done or stopped; a stopped run returns the
+    // partial total of the prefix tasks finished so far.
+    public CountResult countAll(int N, Path checkpoint) throws IOException {
+        stopAll();
+        this.stopFlag.set(false);
+
+        SolutionCache cache = this.cache;
+        if (cache != null && cache.total(N) >= 0) {
+            return new CountResult(N, cache.total(N), -1, 0, 0);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            CheckpointedCounter counter = new CheckpointedCounter(N, pool, this.stopFlag, checkpoint);
+            trackProgress(counter.getProgress());
+            CountResult result = counter.count();
+            if (cache != null && counter.isComplete()) {
+                cache.putCount(N, result.getTotal(), -1);
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Headless enumeration of every solution for N into a packed binary file (see solver.SolutionFile).
+    // Blocks until done; returns the number of boards written.
+    public long exportAll(int N, Path path) throws IOException {
+        stopAll();
+        this.stopFlag.set(false);
+
+        SolutionCache cache = this.cache;
+        Path cached = cache == null ? null : cache.solutionSet(N);
+        if (cached != null) {
+            Files.copy(cached, path, StandardCopyOption.REPLACE_EXISTING);
+            try (SolutionFileReader copied = new SolutionFileReader(path)) {
+                return copied.getBoardCount(); // from the file header: the count record may be gone
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            long boards = SolutionFileWriter.writeAll(path, N, SolutionCounter.DEFAULT_SPLIT_DEPTH, pool, this.stopFlag);
+            if (cache != null && !stopFlag.get()) {
+                cache.putCount(N, boards, -1);
+                cache.putSolutionSet(N, path);
+            }
+            return boards;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Headless enumeration of every solution for N into off-heap memory (see solver.SolutionStore).
+    // Blocks until done; stopAll() from another thread cancels it and the boards found so far are kept.
+    public SolutionStore collectAll(int N) {
+        stopAll();
+        this.stopFlag.set(false);
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            return SolutionStore.collectAll(N, SolutionCounter.DEFAULT_SPLIT_DEPTH, pool, this.stopFlag);
+        } finally {
+            pool.shutdown();
         }
     }
 
     public void stopAll() {
         this.stopFlag.set(true);
 
-        for(Thread thread : threads){
-            thread.interrupt();
+        if (executor != null) {
+            executor.shutdownNow(); // interrupts sleeping lanes
         }
+        if (refining != null) {
+            refining.cancel(false);
+        }
+
+        snapshotChannel.clear();
+        closeRecorder();
+    }
+
+    // Stops the current run and drops this manager's MBean; call when the manager is replaced or discarded
+    public void shutdown() {
+        stopAll();
+        metrics.unregister();
+    }
+
+    // Records startAll runs to path (see SnapshotRecorder) until stopRecording(); each run replaces the last one
+    public void startRecording(Path path) {
+        this.recordTo = path;
+    }
+
+    public void stopRecording() {
+        this.recordTo = null;
+        closeRecorder();
+    }
+
+    // The lanes may still be emitting; the recorder ignores whatever arrives after close
+    private void closeRecorder() {
+        SnapshotRecorder recorder = snapshotChannel.getRecorder();
+        if (recorder == null) return;
+        snapshotChannel.setRecorder(null);
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Closing the recording failed: " + e.getMessage());
+        }
+    }
 
-        threads.clear();
-        snapshotQueue.clear();
+    // Headless min-conflicts run: a valid placement for N (queens[row] = col), or null on timeout / stop
+    public int[] findPlacement(int N, long timeout, TimeUnit unit) throws InterruptedException {
+        // Repair would spin until the timeout: there is no placement to converge to
+        if (N == 2 || N == 3) return null;
+        startAll(N, RunConfig.turbo(0), Engine.MIN_CONFLICTS);
+        awaitCompletion(timeout, unit);
+        int[] placement = solution.get();
+        if (placement == null) stopAll();
+        return placement;
     }
 
-    public HashMap<Integer, Color> getThreadColorMap() {
+    // Headless first-solution race: a valid placement for N (queens[row] = col), or null on timeout / stop
+    public int[] findFirstSolution(int N, long timeout, TimeUnit unit) throws InterruptedException {
+        startAll(N, RunConfig.turbo(0), Engine.RACE);
+        awaitCompletion(timeout, unit);
+        int[] placement = solution.get();
+        if (placement == null) stopAll();
+        return placement;
+    }
+
+    public int[] getSolution() {
+        return solution.get();
+    }
+
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public void setWatched(boolean watched) {
+        this.watched.set(watched);
+    }
+
+    public RunConfig getRunConfig() {
+        return runConfig;
+    }
+
+    public synchronized HashMap<Integer, Color> getThreadColorMap() {
+        if (threadColorMap == null) {
+            threadColorMap = colorsFor(numThreads);
+        }
         return threadColorMap;
     }
 
-    public BlockingQueue<Snapshot> getSnapshotQueue() {
-        return snapshotQueue;
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    public SnapshotChannel getSnapshotChannel() {
+        return snapshotChannel;
     }
 }
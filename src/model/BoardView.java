@@ -0,0 +1,17 @@
+package model;
+
+// Read-only access to one worker's board without copying it.
+// Views handed out by the snapshot pipeline are only valid until the next update, so copy what you keep.
+public interface BoardView {
+
+    int getThreadId();
+
+    int getN();
+
+    // Column of the queen in the given row, -1 if the row is empty
+    int getQueen(int row);
+
+    void copyQueensInto(int[] dst);
+
+    long getTimestamp();
+}
@@ -0,0 +1,57 @@
+package model;
+
+public class CountResult {
+
+    private final int N;
+    private final long total;
+    private final long fundamental; // -1 when the mode does not classify solutions
+    private final int tasks;
+    private final long elapsedNanos;
+    private final long nodes;       // -1 when the mode does not count placements
+
+    public CountResult(int N, long total, long fundamental, int tasks, long elapsedNanos) {
+        this(N, total, fundamental, tasks, elapsedNanos, -1);
+    }
+
+    public CountResult(int N, long total, long fundamental, int tasks, long elapsedNanos, long nodes) {
+        this.N = N;
+        this.total = total;
+        this.fundamental = fundamental;
+        this.tasks = tasks;
+        this.elapsedNanos = elapsedNanos;
+        this.nodes = nodes;
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getFundamental() {
+        return fundamental;
+    }
+
+    public int getTasks() {
+        return tasks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "N=" + N + " total=" + total
+                + (fundamental >= 0 ? " fundamental=" + fundamental : "")
+                + " tasks=" + tasks
+                + (nodes >= 0 ? " nodes=" + nodes : "")
+                + " time=" + (elapsedNanos / 1_000_000) + "ms";
+    }
+}
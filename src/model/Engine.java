@@ -0,0 +1,7 @@
+package model;
+
+public enum Engine {
+    BACKTRACKING,  // exhaustive search per first-column row (QueenWorker)
+    MIN_CONFLICTS, // randomized iterative repair with parallel restarts, for very large N (MinConflictsWorker)
+    RACE           // first-solution portfolio: backtracking lanes with different value orderings (RaceWorker)
+}
@@ -0,0 +1,84 @@
+package model;
+
+public class Progress {
+
+    private final long estimatedNodes;  // nodes in the whole search, finished parts counted exactly when known
+    private final long nodesDone;
+    private final int unitsDone;
+    private final int units;
+    private final double relativeError; // standard error of the estimate for the unfinished part, relative to it
+    private final long elapsedMillis;
+    private final long etaMillis;       // -1 until there is a rate to extrapolate from
+
+    public Progress(long estimatedNodes, long nodesDone, int unitsDone, int units,
+                    double relativeError, long elapsedMillis, long etaMillis) {
+        this.estimatedNodes = estimatedNodes;
+        this.nodesDone = nodesDone;
+        this.unitsDone = unitsDone;
+        this.units = units;
+        this.elapsedMillis = elapsedMillis;
+        // An estimate that does not fit a long has no meaningful error, percentage or ETA
+        boolean saturated = estimatedNodes == Long.MAX_VALUE;
+        this.relativeError = saturated ? Double.NaN : relativeError;
+        this.etaMillis = saturated && etaMillis != 0 ? -1 : etaMillis;
+    }
+
+    // True if the estimated size overflowed (the estimate is only a lower bound)
+    public boolean isSaturated() {
+        return estimatedNodes == Long.MAX_VALUE;
+    }
+
+    public long getEstimatedNodes() {
+        return estimatedNodes;
+    }
+
+    public long getNodesDone() {
+        return nodesDone;
+    }
+
+    public int getUnitsDone() {
+        return unitsDone;
+    }
+
+    public int getUnits() {
+        return units;
+    }
+
+    public double getRelativeError() {
+        return relativeError;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getEtaMillis() {
+        return etaMillis;
+    }
+
+    // 0..100
+    public double getPercentDone() {
+        if (units > 0 && unitsDone == units) return 100;
+        if (estimatedNodes <= 0 || isSaturated()) return 0;
+        return Math.min(100, 100.0 * nodesDone / estimatedNodes);
+    }
+
+    @Override
+    public String toString() {
+        if (isSaturated()) {
+            return String.format("? of >%.3g nodes (estimate saturated) units=%d/%d eta=%s",
+                    (double) estimatedNodes, unitsDone, units, etaMillis < 0 ? "?" : formatMillis(etaMillis));
+        }
+        return String.format("%.1f%% of ~%.3g nodes (+-%.0f%%) units=%d/%d eta=%s",
+                getPercentDone(), (double) estimatedNodes, relativeError * 100, unitsDone, units,
+                etaMillis < 0 ? "?" : formatMillis(etaMillis));
+    }
+
+    public static String formatMillis(long millis) {
+        long s = millis / 1000;
+        if (s < 60) return s + "s";
+        if (s < 3600) return (s / 60) + "m " + (s % 60) + "s";
+        if (s < 86400) return (s / 3600) + "h " + (s % 3600 / 60) + "m";
+        return (s / 86400) + "d " + (s % 86400 / 3600) + "h";
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+public class RunConfig {
+
+    public static final int DEFAULT_DELAY_MS = 100;
+    public static final int DEFAULT_SAMPLE_NODES = 10_000;
+    public static final int DEFAULT_SAMPLE_MS = 50;
+    public static final int DEFAULT_FRAME_MS = 16; // ~60 fps
+
+    private final RunMode mode;
+    private final int delayMs;
+    private final long sampleEveryNodes; // <= 0 disables the node trigger
+    private final long sampleEveryMs;    // <= 0 disables the time trigger
+
+    private RunConfig(RunMode mode, int delayMs, long sampleEveryNodes, long sampleEveryMs) {
+        this.mode = mode;
+        this.delayMs = delayMs;
+        this.sampleEveryNodes = sampleEveryNodes;
+        this.sampleEveryMs = sampleEveryMs;
+    }
+
+    public static RunConfig animated(int delayMs) {
+        return new RunConfig(RunMode.ANIMATED, delayMs, 1, 0);
+    }
+
+    public static RunConfig sampled(long everyNodes, long everyMs) {
+        return new RunConfig(RunMode.SAMPLED, 0, everyNodes, everyMs);
+    }
+
+    public static RunConfig turbo(long frameBudgetMs) {
+        return new RunConfig(RunMode.TURBO, 0, 0, frameBudgetMs);
+    }
+
+    public static RunConfig defaults(RunMode mode) {
+        switch (mode) {
+            case SAMPLED:
+                return sampled(DEFAULT_SAMPLE_NODES, DEFAULT_SAMPLE_MS);
+            case TURBO:
+                return turbo(DEFAULT_FRAME_MS);
+            default:
+                return animated(DEFAULT_DELAY_MS);
+        }
+    }
+
+    public RunMode getMode() {
+        return mode;
+    }
+
+    public int getDelayMs() {
+        return delayMs;
+    }
+
+    public long getSampleEveryNodes() {
+        return sampleEveryNodes;
+    }
+
+    public long getSampleEveryMs() {
+        return sampleEveryMs;
+    }
+
+    @Override
+    public String toString() {
+        return mode.toString();
+    }
+}
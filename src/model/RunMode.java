@@ -0,0 +1,7 @@
+package model;
+
+public enum RunMode {
+    ANIMATED, // sleep between steps and emit every step (demo)
+    SAMPLED,  // no sleeps, emit every K nodes or every T ms
+    TURBO     // no sleeps, emit at most once per frame budget
+}
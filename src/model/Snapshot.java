@@ -1,6 +1,6 @@
 package model;
 
-public class Snapshot {
+public class Snapshot implements BoardView {
 
     private final int threadId;
     private final int[] queens;
@@ -20,4 +20,15 @@ public class Snapshot {
     public long getTimestamp() {
         return timestamp;
     }
+
+    // Non-cloning read access (BoardView)
+    public int getN() {
+        return queens.length;
+    }
+    public int getQueen(int row) {
+        return queens[row];
+    }
+    public void copyQueensInto(int[] dst) {
+        System.arraycopy(queens, 0, dst, 0, queens.length);
+    }
 }
@@ -0,0 +1,10 @@
+package model;
+
+// Order in which a backtracking worker tries the rows of a column (see solver.OrderedBacktracking)
+public enum ValueOrder {
+    ROW_ORDER,    // 0, 1, 2, ... like QueenWorker
+    MIDDLE_OUT,   // centre rows first, alternating outwards
+    KNIGHT_STEP,  // column c starts at row 2c (a knight's move from the previous column's start), plus a lane
+                  // shift, and wraps; a heuristic only, it still backtracks for most N
+    RANDOM        // per column a random offset and a random stride coprime to N; restarted with growing budgets
+}
@@ -0,0 +1,67 @@
+// Cache and de-duplication key of a SolverService request.
+// Partial placements are normalized to the smallest of their 8 symmetric images, so mirrored or rotated
+// versions of the same question share one search and one cache entry; transform says how to map the answer
+// back into the caller's frame (see solver.Symmetry.transformCells).
+
+package service;
+
+import solver.Symmetry;
+
+import java.util.Arrays;
+
+final class Query {
+
+    enum Type { FIRST_SOLUTION, COUNT, COMPLETE }
+
+    final Type type;
+    final int N;
+    final int[] partial;   // COMPLETE: normalized pre-placement, null otherwise
+    final int transform;   // COMPLETE: cell transform that turned the caller's placement into partial
+
+    private Query(Type type, int N, int[] partial, int transform) {
+        this.type = type;
+        this.N = N;
+        this.partial = partial;
+        this.transform = transform;
+    }
+
+    static Query firstSolution(int N) {
+        return new Query(Type.FIRST_SOLUTION, N, null, 0);
+    }
+
+    static Query count(int N) {
+        return new Query(Type.COUNT, N, null, 0);
+    }
+
+    // queens must not hold two queens in one column (those have no completion and are answered directly)
+    static Query complete(int[] queens) {
+        int[] best = queens.clone();
+        int bestTransform = 0;
+        for (int t = 1; t < 8; t++) {
+            int[] image = Symmetry.transformCells(queens, t);
+            if (Arrays.compare(image, best) < 0) {
+                best = image;
+                bestTransform = t;
+            }
+        }
+        return new Query(Type.COMPLETE, queens.length, best, bestTransform);
+    }
+
+    // The transform is the caller's, not part of the question
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Query)) return false;
+        Query other = (Query) o;
+        return type == other.type && N == other.N && Arrays.equals(partial, other.partial);
+    }
+
+    @Override
+    public int hashCode() {
+        return (type.hashCode() * 31 + N) * 31 + Arrays.hashCode(partial);
+    }
+
+    @Override
+    public String toString() {
+        return type + " N=" + N + (partial != null ? " " + Arrays.toString(partial) : "");
+    }
+}
@@ -0,0 +1,228 @@
+// In-process solver API for other JVM code: first solution for N, count for N, and completion of a partial
+// placement, each answered with a CompletableFuture.
+//
+// All requests share one ForkJoinPool sized at construction (counts fork their prefix tasks onto it too), so a
+// burst of requests queues instead of starting threads per request. Identical requests that arrive while the
+// first one is still running get the same future, and finished answers stay in an LRU map of maxEntries
+// queries; counts are also read from and written to the on-disk SolutionCache when one is set.
+//
+// Boards use the queens[row] = col layout; every caller gets its own copy of a board. A null board means
+// there is none (N = 2, 3, or a placement that cannot be completed).
+//
+// Every search has its own stop flag, raised as soon as its future completes by any means: a completion that
+// runs past its timeout fails with a TimeoutException and frees its pool thread, without touching the other
+// requests. Identical requests sharing a search share its timeout too.
+
+package service;
+
+import cache.SolutionCache;
+import model.CountResult;
+import solver.BitmaskSearch;
+import solver.ExplicitSolution;
+import solver.SolutionCounter;
+import solver.Symmetry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class SolverService implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_COMPLETE_TIMEOUT_SECONDS = 60;
+
+    private static final Object NONE = new Object(); // cached "no board", since the LRU map cannot tell null apart
+
+    private final ForkJoinPool pool;
+    private final AtomicBoolean stopFlag = new AtomicBoolean(false);
+    private final ConcurrentHashMap<Query, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Query, Object> results;
+    private volatile SolutionCache cache; // null -> counts are only kept in memory
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+
+    public SolverService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_ENTRIES);
+    }
+
+    public SolverService(int threads, int maxEntries) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // A valid placement for N from the explicit construction (no search), any N >= 1
+    public CompletableFuture<int[]> firstSolution(int N) {
+        if (N < 1) throw new IllegalArgumentException("N must be at least 1, got " + N);
+        return submit(Query.firstSolution(N), 0, stop -> ExplicitSolution.forSize(N)).thenApply(SolverService::copy);
+    }
+
+    // Every solution for N (up to BitmaskSearch.MAX_N), with the fundamental ones, counted on the shared pool
+    public CompletableFuture<CountResult> count(int N) {
+        BitmaskSearch.checkSize(N);
+        return submit(Query.count(N), 0, stop -> {
+            SolutionCache disk = cache;
+            if (disk != null && disk.total(N) >= 0) {
+                return new CountResult(N, disk.total(N), disk.fundamental(N), 0, 0);
+            }
+            CountResult result = new SolutionCounter(N, SolutionCounter.DEFAULT_SPLIT_DEPTH, pool, stop, true).count();
+            checkStopped(stop);
+            if (disk != null) disk.putCount(N, result.getTotal(), result.getFundamental());
+            return result;
+        }).thenApply(result -> (CountResult) result);
+    }
+
+    // The first completion (column order) of queens[row] = col with -1 for free rows, up to BitmaskSearch.MAX_N;
+    // the pre-placed queens keep their cells. Gives up after DEFAULT_COMPLETE_TIMEOUT_SECONDS.
+    public CompletableFuture<int[]> complete(int[] queens) {
+        return complete(queens, DEFAULT_COMPLETE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Same, failing with a TimeoutException (and stopping the search) if no answer is found within the timeout
+    public CompletableFuture<int[]> complete(int[] queens, long timeout, TimeUnit unit) {
+        int N = queens.length;
+        BitmaskSearch.checkSize(N);
+        boolean[] usedCols = new boolean[N];
+        for (int row = 0; row < N; row++) {
+            int col = queens[row];
+            if (col < -1 || col >= N) {
+                throw new IllegalArgumentException("Queen at row " + row + " is off the board: column " + col);
+            }
+            if (col < 0) continue;
+            if (usedCols[col]) return CompletableFuture.completedFuture(null); // two queens in one column
+            usedCols[col] = true;
+        }
+
+        Query query = Query.complete(queens);
+        return submit(query, unit.toMillis(timeout), stop -> {
+            int[] board = BitmaskSearch.complete(query.partial, stop);
+            checkStopped(stop);
+            return board;
+        }).thenApply(board -> board == null ? null : Symmetry.untransformCells((int[]) board, query.transform));
+    }
+
+    // Optional second tier for counts, shared with the UI's runs
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    public int getCachedEntries() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    // Stops running searches and fails every pending future with a CancellationException
+    @Override
+    public void close() {
+        stopFlag.set(true);
+        pool.shutdownNow();
+        for (CompletableFuture<Object> future : inFlight.values()) {
+            future.completeExceptionally(new CancellationException("Solver service closed"));
+        }
+        inFlight.clear();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    // ---- request handling ----
+
+    // job gets the request's own stop flag; timeoutMillis <= 0 means no timeout
+    private CompletableFuture<Object> submit(Query query, long timeoutMillis, Function<AtomicBoolean, Object> job) {
+        if (stopFlag.get()) {
+            return CompletableFuture.failedFuture(new CancellationException("Solver service closed"));
+        }
+
+        Object cached = lookup(query);
+        if (cached != null) return CompletableFuture.completedFuture(unwrap(cached));
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(query, future);
+        if (running != null) {
+            deduplicated.increment();
+            return running;
+        }
+
+        // The answer may have landed between the lookup and putIfAbsent; results are stored before the
+        // in-flight entry is removed, so looking again here cannot miss it
+        cached = lookup(query);
+        if (cached != null) {
+            inFlight.remove(query, future);
+            future.complete(unwrap(cached));
+            return future;
+        }
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        if (timeoutMillis > 0) future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, failure) -> {
+            stop.set(true); // answered, timed out or the service closed: nothing left to search for
+            inFlight.remove(query, future);
+        });
+
+        pool.execute(() -> {
+            try {
+                Object result = job.apply(stop);
+                solved.increment();
+                synchronized (results) {
+                    results.put(query, result != null ? result : NONE);
+                }
+                inFlight.remove(query, future);
+                future.complete(result);
+            } catch (Throwable t) {
+                inFlight.remove(query, future);
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    private Object lookup(Query query) {
+        Object cached;
+        synchronized (results) {
+            cached = results.get(query);
+        }
+        if (cached != null) cacheHits.increment();
+        return cached;
+    }
+
+    private static Object unwrap(Object cached) {
+        return cached == NONE ? null : cached;
+    }
+
+    // Keeps a stopped search's partial answer out of the results
+    private void checkStopped(AtomicBoolean stop) {
+        if (stopFlag.get()) throw new CancellationException("Solver service closed");
+        if (stop.get()) throw new CancellationException("Request stopped");
+    }
+
+    private static int[] copy(Object board) {
+        return board == null ? null : ((int[]) board).clone();
+    }
+}
@@ -0,0 +1,113 @@
+// Bitmask view of a partially filled board: occupied rows and both diagonals are kept as bitsets,
+// so checking a cell, placing/removing a queen and finding the next free row are all word-level operations
+
+package solver;
+
+import java.util.Arrays;
+
+public class BitBoard {
+
+    private final int N;
+    private final long[] rows;      // bit r      -> row r is occupied
+    private final long[] diagonals; // bit r+c    -> "/" diagonal through (r, c) is occupied
+    private final long[] antiDiags; // bit r-c+N-1 -> "\" diagonal through (r, c) is occupied
+    private final int[] colToRow;   // row of the queen in each column, -1 if the column is empty
+
+    public BitBoard(int N) {
+        this.N = N;
+        this.rows = new long[words(N)];
+        // One spare word so window() can always read the word after the last diagonal bit
+        this.diagonals = new long[words(2 * N - 1) + 1];
+        this.antiDiags = new long[words(2 * N - 1) + 1];
+        this.colToRow = new int[N];
+        Arrays.fill(colToRow, -1);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public boolean isSafe(int row, int col) {
+        return !test(rows, row)
+                && !test(diagonals, row + col)
+                && !test(antiDiags, row - col + N - 1);
+    }
+
+    public void place(int row, int col) {
+        set(rows, row);
+        set(diagonals, row + col);
+        set(antiDiags, row - col + N - 1);
+        colToRow[col] = row;
+    }
+
+    public void remove(int row, int col) {
+        clear(rows, row);
+        clear(diagonals, row + col);
+        clear(antiDiags, row - col + N - 1);
+        colToRow[col] = -1;
+    }
+
+    public int queenRow(int col) {
+        return colToRow[col];
+    }
+
+    // Lowest safe row >= fromRow in the given column, or -1 if there is none.
+    // Works one 64-row block at a time, so for N <= 64 this is a handful of shifts and one numberOfTrailingZeros.
+    public int nextSafeRow(int col, int fromRow) {
+        if (fromRow >= N) return -1;
+
+        int lastWord = (N - 1) >>> 6;
+        for (int w = fromRow >>> 6; w <= lastWord; w++) {
+            int base = w << 6;
+            long occupied = rows[w]
+                    | window(diagonals, base + col)
+                    | window(antiDiags, base - col + N - 1);
+
+            long free = ~occupied;
+            if (w == lastWord && (N & 63) != 0) {
+                free &= (1L << (N & 63)) - 1;
+            }
+            if (base < fromRow) {
+                free &= -1L << (fromRow - base);
+            }
+            if (free != 0) {
+                return base + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    public void clearAll() {
+        Arrays.fill(rows, 0L);
+        Arrays.fill(diagonals, 0L);
+        Arrays.fill(antiDiags, 0L);
+        Arrays.fill(colToRow, -1);
+    }
+
+    // 64 bits of the bitset starting at bit offset (offset >= 0)
+    private static long window(long[] bits, int offset) {
+        int i = offset >>> 6;
+        int shift = offset & 63;
+        long value = bits[i] >>> shift;
+        if (shift != 0 && i + 1 < bits.length) {
+            value |= bits[i + 1] << (64 - shift);
+        }
+        return value;
+    }
+
+    private static boolean test(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+}
@@ -0,0 +1,154 @@
+// Column-by-column backtracking on single-word bitmasks (rows as bits), used by the headless counting modes
+
+package solver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class BitmaskSearch {
+
+    // ld/rd are shifted one bit per column, so the whole board must fit in one long with a bit to spare
+    public static final int MAX_N = Long.SIZE - 1;
+
+    private BitmaskSearch() {
+    }
+
+    public static void checkSize(int N) {
+        if (N < 1 || N > MAX_N) {
+            throw new IllegalArgumentException("N must be between 1 and " + MAX_N + ", got " + N);
+        }
+    }
+
+    public static long fullMask(int N) {
+        return (1L << N) - 1;
+    }
+
+    public static long count(long full, long cols, long ld, long rd) {
+        if (cols == full) return 1;
+
+        long count = 0;
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            long bit = avail & -avail; // lowest free row
+            avail ^= bit;
+            count += count(full, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1);
+        }
+        return count;
+    }
+
+    // Same as count(), also adding the placements it makes to nodes[0]
+    public static long count(long full, long cols, long ld, long rd, long[] nodes) {
+        if (cols == full) return 1;
+
+        long count = 0;
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            nodes[0]++;
+            count += count(full, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1, nodes);
+        }
+        return count;
+    }
+
+    // Nodes (placements) the counting search visits below this position
+    public static long countNodes(long full, long cols, long ld, long rd) {
+        long nodes = 0;
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            nodes += 1 + countNodes(full, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1);
+        }
+        return nodes;
+    }
+
+    // Same search as count(), but hands every solution to the visitor.
+    // queens[row] = col is filled in as queens are placed; stale entries are always overwritten by the time a
+    // solution is complete, because each row is used exactly once along the path.
+    public static void enumerate(long full, int col, long cols, long ld, long rd,
+                                 int[] queens, SolutionVisitor visitor) {
+        enumerate(full, col, cols, ld, rd, queens, visitor, new long[1]);
+    }
+
+    // Same, also adding the placements it makes to nodes[0]
+    public static void enumerate(long full, int col, long cols, long ld, long rd,
+                                 int[] queens, SolutionVisitor visitor, long[] nodes) {
+        if (cols == full) {
+            visitor.visit(queens);
+            return;
+        }
+
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            nodes[0]++;
+            queens[Long.numberOfTrailingZeros(bit)] = col;
+            enumerate(full, col + 1, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1, queens, visitor, nodes);
+        }
+    }
+
+    // First completion of a partial board (queens[row] = col, -1 = free row) in column order, as a new array.
+    // null if the pre-placed queens attack each other, nothing completes them or the stop flag was raised.
+    public static int[] complete(int[] partial, AtomicBoolean stopFlag) {
+        int N = partial.length;
+        checkSize(N);
+
+        // Columns with a pre-placed queen only accept its row; every other column must keep clear of those rows
+        // and of the diagonals they cover, which is known before the search reaches them
+        int[] fixedRow = new int[N];
+        Arrays.fill(fixedRow, -1);
+        long reserved = 0;
+        for (int row = 0; row < N; row++) {
+            int col = partial[row];
+            if (col < 0) continue;
+            if (col >= N) {
+                throw new IllegalArgumentException("Queen at row " + row + " is off the board: column " + col);
+            }
+            if (fixedRow[col] >= 0) return null; // two queens in one column
+            fixedRow[col] = row;
+            reserved |= 1L << row;
+        }
+
+        long full = fullMask(N);
+        long[] blocked = new long[N];
+        Arrays.fill(blocked, reserved);
+        for (int fixedCol = 0; fixedCol < N; fixedCol++) {
+            int row = fixedRow[fixedCol];
+            if (row < 0) continue;
+            for (int col = 0; col < N; col++) {
+                int d = Math.abs(col - fixedCol);
+                if (d == 0) continue;
+                long diagonals = ((1L << row) << d | (1L << row) >>> d) & full;
+                if (fixedRow[col] >= 0 && (diagonals & 1L << fixedRow[col]) != 0) return null; // attack each other
+                blocked[col] |= diagonals;
+            }
+        }
+        for (int col = 0; col < N; col++) {
+            if (fixedRow[col] < 0 && (blocked[col] & full) == full) return null; // a free column with no row left
+        }
+
+        int[] queens = new int[N];
+        return complete(full, 0, 0L, 0L, 0L, blocked, fixedRow, queens, stopFlag) ? queens : null;
+    }
+
+    private static boolean complete(long full, int col, long cols, long ld, long rd, long[] blocked,
+                                    int[] fixedRow, int[] queens, AtomicBoolean stopFlag) {
+        if (cols == full) return true;
+        if (stopFlag.get()) return false;
+
+        long free = ~(cols | ld | rd) & full;
+        long avail = fixedRow[col] >= 0 ? free & (1L << fixedRow[col]) : free & ~blocked[col];
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            queens[Long.numberOfTrailingZeros(bit)] = col;
+            if (complete(full, col + 1, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1,
+                    blocked, fixedRow, queens, stopFlag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
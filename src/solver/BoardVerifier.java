@@ -0,0 +1,64 @@
+// Checks complete boards (queens[row] = col) for validity, any N.
+// isValid() allocates its scratch per call; an instance reuses it, for checking many boards of one size.
+// This is also ScalarKernel's board check; verifyFile goes through ColumnKernel.best().
+
+package solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class BoardVerifier {
+
+    private static final int BATCH = 256; // boards per verifyFile batch
+
+    private final int N;
+    private final boolean[] usedCols;
+    private final boolean[] usedDiags;
+    private final boolean[] usedAntiDiags;
+
+    public BoardVerifier(int N) {
+        if (N < 1) throw new IllegalArgumentException("N must be at least 1, got " + N);
+        this.N = N;
+        this.usedCols = new boolean[N];
+        this.usedDiags = new boolean[2 * N - 1];
+        this.usedAntiDiags = new boolean[2 * N - 1];
+    }
+
+    public static boolean isValid(int[] queens) {
+        return new BoardVerifier(queens.length).check(queens);
+    }
+
+    // True if queens (length N) has one queen per row and no two queens attack each other
+    public boolean check(int[] queens) {
+        if (queens.length != N) return false;
+        Arrays.fill(usedCols, false);
+        Arrays.fill(usedDiags, false);
+        Arrays.fill(usedAntiDiags, false);
+        for (int row = 0; row < N; row++) {
+            int col = queens[row];
+            if (col < 0 || col >= N) return false;
+            if (usedCols[col] || usedDiags[row + col] || usedAntiDiags[row - col + N - 1]) return false;
+            usedCols[col] = true;
+            usedDiags[row + col] = true;
+            usedAntiDiags[row - col + N - 1] = true;
+        }
+        return true;
+    }
+
+    // Invalid boards in a SolutionFile, checked in batches by the best available ColumnKernel
+    public static long verifyFile(Path path) throws IOException {
+        try (SolutionFileReader reader = new SolutionFileReader(path)) {
+            ColumnKernel kernel = ColumnKernel.best();
+            int[][] batch = new int[BATCH][reader.getN()];
+            long invalid = 0;
+            int count;
+            do {
+                count = 0;
+                while (count < BATCH && reader.next(batch[count])) count++;
+                invalid += kernel.countInvalid(batch, count, reader.getN());
+            } while (count == BATCH);
+            return invalid;
+        }
+    }
+}
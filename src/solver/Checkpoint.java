@@ -0,0 +1,105 @@
+// Progress of a resumable count: the prefix tasks of the run and, per task, its count or PENDING.
+// Written with plain Java serialization to a temporary file that then replaces the old checkpoint,
+// so a crash mid-write leaves the previous checkpoint intact.
+
+package solver;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Checkpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long PENDING = -1;
+
+    private final int N;
+    private final List<PrefixTask> tasks;
+    private final long[] counts;      // counts[i] = solutions under tasks[i], or PENDING
+    private final long elapsedNanos;  // time spent by all earlier sessions together
+
+    public Checkpoint(int N, List<PrefixTask> tasks, long[] counts, long elapsedNanos) {
+        if (tasks.size() != counts.length) {
+            throw new IllegalArgumentException(tasks.size() + " tasks but " + counts.length + " counts");
+        }
+        this.N = N;
+        this.tasks = new ArrayList<>(tasks);
+        this.counts = counts.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Nothing done yet
+    public static Checkpoint fresh(int N, int depth) {
+        List<PrefixTask> tasks = PrefixTask.enumerate(N, depth);
+        long[] counts = new long[tasks.size()];
+        Arrays.fill(counts, PENDING);
+        return new Checkpoint(N, tasks, counts, 0);
+    }
+
+    public static Checkpoint read(Path path) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(path))) {
+            return (Checkpoint) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException("Not a checkpoint: " + path);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tmp))) {
+            out.writeObject(this);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public List<PrefixTask> getTasks() {
+        return new ArrayList<>(tasks);
+    }
+
+    public long getCount(int task) {
+        return counts[task];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getCompletedCount() {
+        int done = 0;
+        for (long c : counts) {
+            if (c != PENDING) done++;
+        }
+        return done;
+    }
+
+    public boolean isComplete() {
+        return getCompletedCount() == counts.length;
+    }
+
+    // Sum over the completed tasks; the final total once isComplete()
+    public long getPartialTotal() {
+        long total = 0;
+        for (long c : counts) {
+            if (c != PENDING) total += c;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "N=" + N + " done=" + getCompletedCount() + "/" + counts.length + " partial=" + getPartialTotal();
+    }
+}
@@ -0,0 +1,141 @@
+// Headless count that survives being stopped or killed. The work is the column-0/column-1 prefix tasks;
+// their progress goes to a checkpoint file periodically, when the run is stopped and when the JVM shuts down,
+// and a later count with the same file only runs the tasks that are still pending.
+
+package solver;
+
+import model.CountResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class CheckpointedCounter {
+
+    public static final int CHECKPOINT_DEPTH = 2;
+    public static final long DEFAULT_INTERVAL_MS = 60_000;
+
+    private final int N;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean stopFlag;
+    private final Path file;
+    private final long intervalMs;
+
+    private final Checkpoint start;
+    private final List<PrefixTask> tasks;
+    private final AtomicLongArray counts;
+    private final ProgressEstimator progress;
+    private long sessionStart;
+
+    public CheckpointedCounter(int N, ForkJoinPool pool, AtomicBoolean stopFlag, Path file) throws IOException {
+        this(N, pool, stopFlag, file, DEFAULT_INTERVAL_MS);
+    }
+
+    // Loads the checkpoint if the file exists
+    public CheckpointedCounter(int N, ForkJoinPool pool, AtomicBoolean stopFlag, Path file, long intervalMs)
+            throws IOException {
+        BitmaskSearch.checkSize(N);
+        this.N = N;
+        this.pool = pool;
+        this.stopFlag = stopFlag;
+        this.file = file;
+        this.intervalMs = intervalMs;
+
+        this.start = Files.exists(file) ? Checkpoint.read(file) : Checkpoint.fresh(N, CHECKPOINT_DEPTH);
+        if (start.getN() != N) {
+            throw new IOException(file + " is a checkpoint for N=" + start.getN() + ", not N=" + N);
+        }
+        this.tasks = start.getTasks();
+        this.counts = new AtomicLongArray(tasks.size());
+        this.progress = new ProgressEstimator(tasks, ProgressEstimator.DEFAULT_PROBE_BUDGET, System.nanoTime());
+        for (int i = 0; i < tasks.size(); i++) {
+            counts.set(i, start.getCount(i));
+            if (start.getCount(i) != Checkpoint.PENDING) progress.complete(i, -1); // counted by an earlier session
+        }
+        progress.restartClock();
+    }
+
+    // Runs the pending tasks. The result is final if the checkpoint is complete afterwards
+    // (see isComplete), otherwise it holds the partial total of the tasks done so far.
+    public CountResult count() throws IOException {
+        Map<PrefixTask, Integer> index = new IdentityHashMap<>();
+        List<PrefixTask> pending = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (counts.get(i) == Checkpoint.PENDING) {
+                index.put(tasks.get(i), i);
+                pending.add(tasks.get(i));
+            }
+        }
+        sessionStart = System.nanoTime();
+
+        ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint-" + N);
+            t.setDaemon(true);
+            return t;
+        });
+        saver.scheduleWithFixedDelay(this::saveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        Thread onExit = new Thread(this::saveQuietly, "checkpoint-on-exit-" + N);
+        Runtime.getRuntime().addShutdownHook(onExit);
+
+        Checkpoint last;
+        try {
+            PrefixRunner.runAll(pool, pending, stopFlag, task -> {
+                long[] nodes = new long[1];
+                long c = task.count(stopFlag, nodes);
+                if (c >= 0) {
+                    counts.set(index.get(task), c);
+                    progress.complete(task, nodes[0]);
+                }
+            });
+        } finally {
+            saver.shutdownNow();
+            try {
+                Runtime.getRuntime().removeShutdownHook(onExit);
+            } catch (IllegalStateException alreadyShuttingDown) {
+                // the hook is running and saves the same state
+            }
+            last = save();
+        }
+
+        return new CountResult(N, last.getPartialTotal(), -1, tasks.size(), last.getElapsedNanos());
+    }
+
+    public ProgressEstimator getProgress() {
+        return progress;
+    }
+
+    public boolean isComplete() {
+        for (int i = 0; i < counts.length(); i++) {
+            if (counts.get(i) == Checkpoint.PENDING) return false;
+        }
+        return true;
+    }
+
+    private synchronized Checkpoint save() throws IOException {
+        long[] done = new long[counts.length()];
+        for (int i = 0; i < done.length; i++) {
+            done[i] = counts.get(i);
+        }
+        Checkpoint checkpoint = new Checkpoint(N, tasks, done, start.getElapsedNanos() + System.nanoTime() - sessionStart);
+        checkpoint.write(file);
+        return checkpoint;
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            System.err.println("Checkpoint to " + file + " failed: " + e.getMessage());
+        }
+    }
+}
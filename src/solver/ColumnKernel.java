@@ -0,0 +1,41 @@
+// Next free row of one column on a byte-per-line board (see ColumnSearch), and validity of a batch of complete
+// boards. Two implementations: VectorKernel tests a whole stretch of the column, or of a board, in a few
+// jdk.incubator.vector operations; ScalarKernel is the plain loop and the fallback when that module is not
+// resolved (it is an incubator module, so it needs --add-modules jdk.incubator.vector at compile and run time).
+
+package solver;
+
+public interface ColumnKernel {
+
+    // Bytes past the end of every line array, so a vector load that starts at any valid index stays in bounds
+    int PAD = 64;
+
+    // First row >= from of column col whose row, "/" diagonal (row + col) and "\" diagonal (row - col + N - 1)
+    // are all 0, or -1. rows[N..] must be non-zero so the padding is never reported as free.
+    int nextFree(byte[] rows, byte[] diagonals, byte[] antiDiags, int N, int col, int from);
+
+    // Boards among boards[0..count) that are not a valid complete placement (queens[row] = col) of N queens
+    int countInvalid(int[][] boards, int count, int N);
+
+    String name();
+
+    static ColumnKernel scalar() {
+        return new ScalarKernel();
+    }
+
+    // The vector kernel, or null if jdk.incubator.vector is not available in this JVM
+    static ColumnKernel vector() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) return null;
+        try {
+            // Loaded by name, so nothing touches the vector classes unless the module is there
+            return (ColumnKernel) Class.forName("solver.VectorKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    static ColumnKernel best() {
+        ColumnKernel vector = vector();
+        return vector != null ? vector : scalar();
+    }
+}
@@ -0,0 +1,92 @@
+// First-solution backtracking column by column with rows tried top to bottom (QueenWorker's order), for any N.
+// The rows and both diagonal directions are one byte per line, indexed so that the cells of a column sit at
+// consecutive indexes of all three arrays; that lets a ColumnKernel test a whole stretch of candidate rows at
+// once instead of one (row, col) cell per call.
+
+package solver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ColumnSearch {
+
+    private final int N;
+    private final ColumnKernel kernel;
+    private final byte[] rows;      // rows[r] != 0      -> row r is occupied; rows[N..] stay 1
+    private final byte[] diagonals; // diagonals[r+c]     -> "/" diagonal through (r, c) is occupied
+    private final byte[] antiDiags; // antiDiags[r-c+N-1] -> "\" diagonal through (r, c) is occupied
+    private final int[] colRow;     // row of the queen in each placed column
+
+    private long nodes;
+    private boolean exhausted;
+
+    public ColumnSearch(int N, ColumnKernel kernel) {
+        if (N < 1) throw new IllegalArgumentException("N must be at least 1, got " + N);
+        this.N = N;
+        this.kernel = kernel;
+        this.rows = new byte[N + ColumnKernel.PAD];
+        this.diagonals = new byte[2 * N - 1 + ColumnKernel.PAD];
+        this.antiDiags = new byte[2 * N - 1 + ColumnKernel.PAD];
+        this.colRow = new int[N];
+        Arrays.fill(rows, N, rows.length, (byte) 1);
+    }
+
+    // Searches from an empty board until a solution (true), the stop flag or an exhausted tree (false)
+    public boolean solve(AtomicBoolean stopFlag) {
+        Arrays.fill(rows, 0, N, (byte) 0);
+        Arrays.fill(diagonals, (byte) 0);
+        Arrays.fill(antiDiags, (byte) 0);
+        nodes = 0;
+        exhausted = false;
+
+        int col = 0;
+        int from = 0;
+        while (col < N) {
+            if (stopFlag.get()) return false;
+
+            int row = kernel.nextFree(rows, diagonals, antiDiags, N, col, from);
+            if (row >= 0) {
+                set(row, col, (byte) 1);
+                colRow[col++] = row;
+                nodes++;
+                from = 0;
+            } else {
+                if (--col < 0) {
+                    exhausted = true;
+                    return false;
+                }
+                from = colRow[col] + 1;
+                set(colRow[col], col, (byte) 0);
+            }
+        }
+        return true;
+    }
+
+    private void set(int row, int col, byte value) {
+        rows[row] = value;
+        diagonals[row + col] = value;
+        antiDiags[row - col + N - 1] = value;
+    }
+
+    // queens[row] = col of the last solution
+    public int[] getQueens() {
+        int[] queens = new int[N];
+        for (int col = 0; col < N; col++) {
+            queens[colRow[col]] = col;
+        }
+        return queens;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // True if the whole tree was searched without finding a solution (N = 2, 3)
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public ColumnKernel getKernel() {
+        return kernel;
+    }
+}
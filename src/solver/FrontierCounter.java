@@ -0,0 +1,335 @@
+// Headless count that meets in the middle instead of searching every complete placement.
+//
+// After k columns the rest of the search depends only on the frontier: the occupied rows and the rows the two
+// diagonals attack in column k (cols, ld, rd as in BitmaskSearch). So the board is cut between columns k - 1 and k,
+// k = N / 2. The left halves are the frontiers after the first k columns. The right halves come from the same
+// enumeration read as the board mirrored left to right: N - k columns deep, taken before the last shift, their two
+// masks are exactly the rows their diagonals occupy in column k. A left and a right half make a solution when their
+// occupied rows complement each other and their masks are disjoint ("/" against the mirrored "\" and vice versa).
+//
+// Halves are grouped by the left half's row set (its colex rank), which fixes the right group to the complement.
+// A group is joined with one bitset per mask bit over its right halves: a left half clashes with the OR of the
+// bitsets of its own bits, so it completes to group size minus that popcount. A row set and its mirror image
+// (rows upside down) join to the same count, so only one of the two is stored.
+//
+// Memory is one long per stored half plus BYTES_PER_GROUP per row set. When that exceeds the budget the groups are
+// dealt round robin to several passes; each pass enumerates the halves again and keeps only its own groups.
+
+package solver;
+
+import model.CountResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class FrontierCounter {
+
+    // Both masks of a half share one long
+    public static final int MAX_N = Long.SIZE / 2;
+
+    // Counts, offsets and cursors of both halves, and the weight
+    public static final int BYTES_PER_GROUP = 6 * Integer.BYTES + 1;
+
+    private final int N;
+    private final int leftColumns;
+    private final int rightColumns; // leftColumns or one more
+    private final long full;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean stopFlag;
+    private final long memoryBudget;
+    private final long[][] binomial;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private volatile int passes = 0;
+
+    public FrontierCounter(int N, ForkJoinPool pool, AtomicBoolean stopFlag, long memoryBudget) {
+        if (N < 1 || N > MAX_N) {
+            throw new IllegalArgumentException("N must be between 1 and " + MAX_N + ", got " + N);
+        }
+        if (memoryBudget <= 0) throw new IllegalArgumentException("Memory budget must be positive");
+        this.N = N;
+        this.leftColumns = N / 2;
+        this.rightColumns = N - N / 2;
+        this.full = BitmaskSearch.fullMask(N);
+        this.pool = pool;
+        this.stopFlag = stopFlag;
+        this.memoryBudget = memoryBudget;
+
+        this.binomial = new long[N + 1][N + 1];
+        for (int n = 0; n <= N; n++) {
+            binomial[n][0] = 1;
+            for (int r = 1; r <= n; r++) {
+                binomial[n][r] = binomial[n - 1][r - 1] + binomial[n - 1][r];
+            }
+        }
+    }
+
+    // Half the maximum heap: the halves are plain long arrays on the heap
+    public static long defaultMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    // Blocks until done; a stopped run returns the total of the groups joined so far
+    public CountResult count() {
+        long start = System.nanoTime();
+        if (leftColumns < 2) {
+            // Nothing to split for N < 4
+            return new CountResult(N, BitmaskSearch.count(full, 0, 0, 0), -1, 0, System.nanoTime() - start);
+        }
+
+        int groups = (int) binomial[N][leftColumns];
+        if ((long) groups * BYTES_PER_GROUP > memoryBudget) {
+            throw new IllegalArgumentException("Memory budget of " + memoryBudget + " bytes is too small for the "
+                    + groups + " row sets of N=" + N);
+        }
+        int splitDepth = Math.min(SolutionCounter.DEFAULT_SPLIT_DEPTH, rightColumns - 1);
+        List<PrefixTask> tasks = PrefixTask.enumerate(N, splitDepth);
+
+        // How many halves each group gets, and whether it stands for its mirror image too
+        AtomicIntegerArray leftCounts = new AtomicIntegerArray(groups);
+        AtomicIntegerArray rightCounts = new AtomicIntegerArray(groups);
+        byte[] weight = new byte[groups];
+        walkAll(tasks, new HalfVisitor() {
+            @Override
+            public void left(long cols, long ld, long rd) {
+                long mirrored = mirror(cols);
+                if (mirrored < cols) return;
+                int g = rank(cols);
+                leftCounts.incrementAndGet(g);
+                weight[g] = (byte) (mirrored == cols ? 1 : 2);
+            }
+
+            @Override
+            public void right(long cols, long first, long second) {
+                long leftCols = full ^ cols;
+                if (mirror(leftCols) < leftCols) return;
+                rightCounts.incrementAndGet(rank(leftCols));
+            }
+        });
+
+        int passes = plan(leftCounts, rightCounts, groups);
+        this.passes = passes;
+
+        LongAdder total = new LongAdder();
+        int[] leftStart = new int[groups];
+        int[] rightStart = new int[groups];
+        AtomicIntegerArray leftCursor = new AtomicIntegerArray(groups);
+        AtomicIntegerArray rightCursor = new AtomicIntegerArray(groups);
+        int joined = 0;
+        for (int pass = 0; pass < passes && !stopFlag.get(); pass++) {
+            int leftSize = 0, rightSize = 0, passGroups = 0;
+            for (int g = pass; g < groups; g += passes) {
+                leftStart[g] = leftSize;
+                rightStart[g] = rightSize;
+                leftCursor.set(g, leftSize);
+                rightCursor.set(g, rightSize);
+                leftSize += leftCounts.get(g);
+                rightSize += rightCounts.get(g);
+                if (leftCounts.get(g) > 0 && rightCounts.get(g) > 0) passGroups++;
+            }
+            int[] work = new int[passGroups];
+            for (int g = pass, i = 0; g < groups; g += passes) {
+                if (leftCounts.get(g) > 0 && rightCounts.get(g) > 0) work[i++] = g;
+            }
+
+            long[] left = new long[leftSize];
+            long[] right = new long[rightSize];
+            int currentPass = pass;
+            walkAll(tasks, new HalfVisitor() {
+                @Override
+                public void left(long cols, long ld, long rd) {
+                    if (mirror(cols) < cols) return;
+                    int g = rank(cols);
+                    if (g % passes != currentPass) return;
+                    left[leftCursor.getAndIncrement(g)] = (ld << N) | rd;
+                }
+
+                @Override
+                public void right(long cols, long first, long second) {
+                    long leftCols = full ^ cols;
+                    if (mirror(leftCols) < leftCols) return;
+                    int g = rank(leftCols);
+                    if (g % passes != currentPass) return;
+                    right[rightCursor.getAndIncrement(g)] = (first << N) | second;
+                }
+            });
+            if (stopFlag.get()) break; // the pass is incomplete
+
+            pool.invoke(new JoinAction(work, 0, work.length, g -> {
+                long compatible = join(left, leftStart[g], leftStart[g] + leftCounts.get(g),
+                        right, rightStart[g], rightStart[g] + rightCounts.get(g));
+                total.add(weight[g] * compatible);
+            }));
+            joined += work.length;
+        }
+
+        return new CountResult(N, total.sum(), -1, joined, System.nanoTime() - start);
+    }
+
+    // Passes used by the last count(), 0 before
+    public int getPasses() {
+        return passes;
+    }
+
+    // Smallest number of passes whose largest one fits the budget with the groups dealt round robin
+    private int plan(AtomicIntegerArray leftCounts, AtomicIntegerArray rightCounts, int groups) {
+        long available = (memoryBudget - (long) groups * BYTES_PER_GROUP) / Long.BYTES;
+        for (int passes = 1; passes <= groups; passes++) {
+            long largest = 0;
+            for (int pass = 0; pass < passes; pass++) {
+                long halves = 0;
+                for (int g = pass; g < groups; g += passes) {
+                    halves += leftCounts.get(g) + (long) rightCounts.get(g);
+                }
+                largest = Math.max(largest, halves);
+            }
+            if (largest <= available && largest <= Integer.MAX_VALUE - 8) return passes;
+        }
+        throw new IllegalArgumentException("Memory budget of " + memoryBudget + " bytes is too small for the largest"
+                + " row set of N=" + N);
+    }
+
+    // Left halves of one group completed by right halves of the same group
+    private long join(long[] left, int leftFrom, int leftTo, long[] right, int rightFrom, int rightTo) {
+        int bits = 2 * N;
+        int size = rightTo - rightFrom;
+        int words = (size + 63) >>> 6;
+        Scratch s = scratch.get();
+        long[] bitsets = s.bitsets(bits * words); // bitsets[bit * words + word]: right halves using that bit
+        int[] offsets = s.offsets(bits);
+
+        for (int i = 0; i < size; i++) {
+            long masks = right[rightFrom + i];
+            while (masks != 0) {
+                int bit = Long.numberOfTrailingZeros(masks);
+                masks &= masks - 1;
+                bitsets[bit * words + (i >>> 6)] |= 1L << i;
+            }
+        }
+
+        long compatible = 0;
+        for (int i = leftFrom; i < leftTo; i++) {
+            long masks = left[i];
+            int n = 0;
+            while (masks != 0) {
+                offsets[n++] = Long.numberOfTrailingZeros(masks) * words;
+                masks &= masks - 1;
+            }
+            long clashes = 0;
+            for (int w = 0; w < words; w++) {
+                long any = 0;
+                for (int j = 0; j < n; j++) {
+                    any |= bitsets[offsets[j] + w];
+                }
+                clashes += Long.bitCount(any);
+            }
+            compatible += size - clashes;
+        }
+        return compatible;
+    }
+
+    private void walkAll(List<PrefixTask> tasks, HalfVisitor visitor) {
+        PrefixRunner.runAll(pool, tasks, stopFlag,
+                task -> walk(task.getDepth(), task.getCols(), task.getLd(), task.getRd(), visitor));
+    }
+
+    // Column-by-column search as in BitmaskSearch, reporting left halves at column leftColumns and right halves
+    // at the last column of the right half, before its shift
+    private void walk(int col, long cols, long ld, long rd, HalfVisitor visitor) {
+        if (col == leftColumns) {
+            visitor.left(cols, ld, rd);
+            if (col == rightColumns) return; // even N: both halves end here
+        }
+        boolean last = col == rightColumns - 1;
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            if (last) {
+                // Read mirrored, "/" and "\" swap: the first mask meets the left half's ld
+                visitor.right(cols | bit, rd | bit, ld | bit);
+                if (leftColumns != rightColumns) continue;
+            }
+            walk(col + 1, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1, visitor);
+        }
+    }
+
+    // The same rows upside down
+    private long mirror(long cols) {
+        return Long.reverse(cols) >>> (Long.SIZE - N);
+    }
+
+    // Colex rank of a row set among those of the same size
+    private int rank(long cols) {
+        long rank = 0;
+        for (int i = 1; cols != 0; i++) {
+            rank += binomial[Long.numberOfTrailingZeros(cols)][i];
+            cols &= cols - 1;
+        }
+        return (int) rank;
+    }
+
+    private interface HalfVisitor {
+        void left(long cols, long ld, long rd);
+
+        void right(long cols, long first, long second);
+    }
+
+    private interface GroupBody {
+        void join(int group);
+    }
+
+    // Halves the group range until one group is left, like PrefixRunner
+    private class JoinAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] groups;
+        private final int from;
+        private final int to;
+        private final GroupBody body;
+
+        JoinAction(int[] groups, int from, int to, GroupBody body) {
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopFlag.get()) return;
+
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    body.join(groups[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new JoinAction(groups, from, mid, body), new JoinAction(groups, mid, to, body));
+        }
+    }
+
+    // Per-thread join buffers, grown to the largest group seen
+    private static class Scratch {
+
+        private long[] bitsets = new long[0];
+        private int[] offsets = new int[0];
+
+        long[] bitsets(int length) {
+            if (bitsets.length < length) bitsets = new long[length];
+            Arrays.fill(bitsets, 0, length, 0L);
+            return bitsets;
+        }
+
+        int[] offsets(int length) {
+            if (offsets.length < length) offsets = new int[length];
+            return offsets;
+        }
+    }
+}
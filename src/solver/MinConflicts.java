@@ -0,0 +1,153 @@
+// Iterative-repair (min-conflicts) search for very large N, after Sosic & Gu's QS4.
+// The board is kept as a permutation (queens[row] = col), so rows and columns never conflict and only the
+// per-diagonal queen counts matter. A randomized greedy start leaves a handful of conflicts, which are then
+// repaired by swapping the columns of an attacked row and a random row whenever that lowers the collision count.
+// Everything lives in three int arrays: memory is linear in N and every move costs O(1).
+
+package solver;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MinConflicts {
+
+    private static final int INIT_TRIES = 20;  // random picks per row before accepting a conflicting one
+    private static final int PARTNER_TRIES = 256; // random partners tried per attacked row and sweep
+    private static final int STALL_SWEEPS = 8;    // sweeps without improvement before giving up on a start
+
+    private final int N;
+    private final int[] queens;   // queens[row] = col, always a permutation
+    private final int[] diagonal; // queens on each "/" diagonal, index row + col
+    private final int[] anti;     // queens on each "\" diagonal, index row - col + N - 1
+    private SplittableRandom random;
+    private long collisions;      // sum over diagonals of max(0, queens - 1)
+    private long swaps;
+
+    public MinConflicts(int N, long seed) {
+        this.N = N;
+        this.queens = new int[N];
+        this.diagonal = new int[2 * N - 1];
+        this.anti = new int[2 * N - 1];
+        restart(seed);
+    }
+
+    // New random greedy start; reuses the arrays
+    public void restart(long seed) {
+        random = new SplittableRandom(seed);
+        Arrays.fill(diagonal, 0);
+        Arrays.fill(anti, 0);
+        collisions = 0;
+        swaps = 0;
+        for (int row = 0; row < N; row++) {
+            queens[row] = row;
+        }
+
+        // Row by row, swap in a random not-yet-used column that lands on two free diagonals
+        for (int row = 0; row < N; row++) {
+            int pick = row + random.nextInt(N - row);
+            for (int t = 1; t < INIT_TRIES; t++) {
+                int col = queens[pick];
+                if (diagonal[row + col] == 0 && anti[row - col + N - 1] == 0) break;
+                pick = row + random.nextInt(N - row);
+            }
+            int col = queens[pick];
+            queens[pick] = queens[row];
+            queens[row] = col;
+            add(row, col);
+        }
+    }
+
+    // Repairs until there are no collisions. Returns false if the start stalled, maxSwapAttempts ran out,
+    // the stop flag was raised or the listener asked to stop.
+    public boolean solve(long maxSwapAttempts, AtomicBoolean stopFlag, StepListener listener) {
+        long attempts = 0;
+        int stalled = 0;
+
+        while (collisions > 0) {
+            long before = collisions;
+
+            for (int row = 0; row < N && collisions > 0; row++) {
+                if (!isAttacked(row)) continue;
+
+                for (int t = 0; t < PARTNER_TRIES; t++) {
+                    int other = random.nextInt(N);
+                    attempts++;
+                    if (other != row && trySwap(row, other)) {
+                        swaps++;
+                        if (listener != null && !listener.step(queens, "SEARCHING")) return false;
+                        break;
+                    }
+                }
+                if (stopFlag.get()) return false;
+            }
+
+            if (attempts >= maxSwapAttempts) return false;
+            stalled = collisions < before ? 0 : stalled + 1;
+            if (stalled >= STALL_SWEEPS) return false;
+        }
+        return true;
+    }
+
+    private boolean isAttacked(int row) {
+        int col = queens[row];
+        return diagonal[row + col] > 1 || anti[row - col + N - 1] > 1;
+    }
+
+    // Exchanges the columns of rows a and b if that strictly lowers the collision count
+    private boolean trySwap(int a, int b) {
+        int colA = queens[a];
+        int colB = queens[b];
+        long before = collisions;
+
+        remove(a, colA);
+        remove(b, colB);
+        add(a, colB);
+        add(b, colA);
+
+        if (collisions < before) {
+            queens[a] = colB;
+            queens[b] = colA;
+            return true;
+        }
+
+        remove(a, colB);
+        remove(b, colA);
+        add(a, colA);
+        add(b, colB);
+        return false;
+    }
+
+    private void add(int row, int col) {
+        if (diagonal[row + col]++ > 0) collisions++;
+        if (anti[row - col + N - 1]++ > 0) collisions++;
+    }
+
+    private void remove(int row, int col) {
+        if (--diagonal[row + col] > 0) collisions--;
+        if (--anti[row - col + N - 1] > 0) collisions--;
+    }
+
+    // The engine's own array (queens[row] = col); copy it before the next restart if you keep it
+    public int[] getQueens() {
+        return queens;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    // 2x2 and 3x3 boards have no solution; every other size does
+    public static boolean hasSolution(int N) {
+        return N == 1 || N >= 4;
+    }
+
+    // Budget used by the workers for one start: generous for small boards, ~linear for large ones
+    public static long defaultSwapBudget(int N) {
+        return 100L * N + 100_000L;
+    }
+}
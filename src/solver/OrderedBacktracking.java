@@ -0,0 +1,138 @@
+// First-solution backtracking over the whole board with a configurable value ordering (model.ValueOrder).
+// Column by column like QueenWorker, but the rows of a column are tried in the ordering's sequence instead of
+// top to bottom, and the search can be cut off after a node budget so randomized orderings can restart.
+// Memory is O(N): the ordering is computed per (column, index) instead of stored as permutations.
+
+package solver;
+
+import model.ValueOrder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class OrderedBacktracking {
+
+    private final int N;
+    private final ValueOrder order;
+    private final int shift;        // KNIGHT_STEP: start offset, so several lanes can use the pattern differently
+    private final BitBoard board;
+    private final int[] queens;     // queens[row] = col
+    private final int[] colRow;     // row of the queen in each placed column
+    private final int[] next;       // next index into the column's ordering
+    private final int[] offset;     // RANDOM: per-column first row
+    private final int[] stride;     // RANDOM: per-column step, coprime to N
+
+    private long nodes;
+    private boolean exhausted;
+
+    public OrderedBacktracking(int N, ValueOrder order, int shift, long seed) {
+        this.N = N;
+        this.order = order;
+        this.shift = shift;
+        this.board = new BitBoard(N);
+        this.queens = new int[N];
+        this.colRow = new int[N];
+        this.next = new int[N];
+        this.offset = order == ValueOrder.RANDOM ? new int[N] : null;
+        this.stride = order == ValueOrder.RANDOM ? new int[N] : null;
+        restart(seed);
+    }
+
+    // Empty board; RANDOM draws a new ordering from the seed
+    public void restart(long seed) {
+        board.clearAll();
+        Arrays.fill(queens, -1);
+        Arrays.fill(next, 0);
+        nodes = 0;
+        exhausted = false;
+        if (order == ValueOrder.RANDOM) {
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int col = 0; col < N; col++) {
+                offset[col] = random.nextInt(N);
+                int s;
+                do {
+                    s = 1 + random.nextInt(Math.max(1, N - 1));
+                } while (gcd(s, N) != 1);
+                stride[col] = s;
+            }
+        }
+    }
+
+    // Searches until a solution (true), or the node budget, the stop flag, the listener or an exhausted tree
+    // ends it (false; see isExhausted)
+    public boolean solve(long nodeBudget, AtomicBoolean stopFlag, StepListener listener) {
+        int col = 0;
+        while (true) {
+            if (col == N) return true;
+            if (stopFlag.get() || nodes >= nodeBudget) return false;
+
+            int row = -1;
+            while (next[col] < N) {
+                int candidate = rowAt(col, next[col]++);
+                if (board.isSafe(candidate, col)) {
+                    row = candidate;
+                    break;
+                }
+            }
+
+            if (row >= 0) {
+                board.place(row, col);
+                queens[row] = col;
+                colRow[col] = row;
+                nodes++;
+                if (!listener.step(queens, "SEARCHING")) return false;
+                col++;
+                if (col < N) next[col] = 0;
+            } else {
+                next[col] = 0;
+                col--;
+                if (col < 0) {
+                    exhausted = true;
+                    return false;
+                }
+                int prev = colRow[col];
+                board.remove(prev, col);
+                queens[prev] = -1;
+                if (!listener.step(queens, "BACKTRACKING")) return false;
+            }
+        }
+    }
+
+    private int rowAt(int col, int i) {
+        switch (order) {
+            case MIDDLE_OUT: {
+                int k = (i + 1) / 2;
+                return (i % 2 == 1) ? N / 2 - k : N / 2 + k;
+            }
+            case KNIGHT_STEP:
+                return (int) ((2L * col + shift + i) % N); // a knight's move (2 rows, 1 column) from the last start
+            case RANDOM:
+                return (int) ((offset[col] + (long) i * stride[col]) % N);
+            default:
+                return i;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    public int[] getQueens() {
+        return queens.clone();
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // True if the whole tree was searched without finding a solution (N = 2, 3)
+    public boolean isExhausted() {
+        return exhausted;
+    }
+}
@@ -0,0 +1,55 @@
+// Runs a body over a list of prefix tasks on a ForkJoinPool. The task range is halved until a single prefix
+// is left, so idle workers steal the remaining halves and every core stays busy until the end.
+
+package solver;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public final class PrefixRunner {
+
+    private PrefixRunner() {
+    }
+
+    // Blocks until every task ran or the stop flag was raised
+    public static void runAll(ForkJoinPool pool, List<PrefixTask> tasks, AtomicBoolean stopFlag, Consumer<PrefixTask> body) {
+        pool.invoke(new RangeAction(tasks, 0, tasks.size(), stopFlag, body));
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<PrefixTask> tasks;
+        private final int from;
+        private final int to;
+        private final AtomicBoolean stopFlag;
+        private final Consumer<PrefixTask> body;
+
+        RangeAction(List<PrefixTask> tasks, int from, int to, AtomicBoolean stopFlag, Consumer<PrefixTask> body) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.stopFlag = stopFlag;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopFlag.get()) return;
+
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    body.accept(tasks.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(tasks, from, mid, stopFlag, body),
+                      new RangeAction(tasks, mid, to, stopFlag, body));
+        }
+    }
+}
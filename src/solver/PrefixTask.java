@@ -0,0 +1,145 @@
+// A unit of counting work: the rows of the queens already placed in the first columns,
+// plus the bitmasks that the search needs to continue from there
+
+package solver;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PrefixTask implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int N;
+    private final int[] rows; // rows[col] = row of the queen placed in column col
+    private final long cols;  // occupied rows
+    private final long ld;    // rows attacked in the next column by "/" diagonals
+    private final long rd;    // rows attacked in the next column by "\" diagonals
+
+    public PrefixTask(int N, int[] rows, long cols, long ld, long rd) {
+        this.N = N;
+        this.rows = rows.clone();
+        this.cols = cols;
+        this.ld = ld;
+        this.rd = rd;
+    }
+
+    // Rebuilds a task from its rows alone (e.g. after receiving it over the wire)
+    public static PrefixTask fromRows(int N, int[] rows) {
+        BitmaskSearch.checkSize(N);
+        long full = BitmaskSearch.fullMask(N);
+        long cols = 0, ld = 0, rd = 0;
+        for (int row : rows) {
+            long bit = 1L << row;
+            if (((cols | ld | rd) & bit) != 0) {
+                throw new IllegalArgumentException("Queen at row " + row + " is attacked");
+            }
+            cols |= bit;
+            ld = ((ld | bit) << 1) & full;
+            rd = (rd | bit) >>> 1;
+        }
+        return new PrefixTask(N, rows, cols, ld, rd);
+    }
+
+    // All conflict-free placements of the first `depth` columns, in row order
+    public static List<PrefixTask> enumerate(int N, int depth) {
+        return enumerate(N, depth, N);
+    }
+
+    // Same, but the column-0 queen is limited to rows [0, firstColumnRows)
+    public static List<PrefixTask> enumerate(int N, int depth, int firstColumnRows) {
+        BitmaskSearch.checkSize(N);
+        List<PrefixTask> out = new ArrayList<>();
+        int d = Math.min(depth, N);
+        collect(N, BitmaskSearch.fullMask(N), BitmaskSearch.fullMask(firstColumnRows), d, new int[d], 0, 0L, 0L, 0L, out);
+        return out;
+    }
+
+    private static void collect(int N, long full, long firstColumn, int depth, int[] rows, int col,
+                                long cols, long ld, long rd, List<PrefixTask> out) {
+        if (col == depth) {
+            out.add(new PrefixTask(N, rows, cols, ld, rd));
+            return;
+        }
+        long avail = ~(cols | ld | rd) & (col == 0 ? firstColumn : full);
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            rows[col] = Long.numberOfTrailingZeros(bit);
+            collect(N, full, firstColumn, depth, rows, col + 1,
+                    cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1, out);
+        }
+    }
+
+    // Number of complete solutions that start with this prefix
+    public long count() {
+        return BitmaskSearch.count(BitmaskSearch.fullMask(N), cols, ld, rd);
+    }
+
+    // Same, also adding the placements made below the prefix to nodes[0]
+    public long count(long[] nodes) {
+        return BitmaskSearch.count(BitmaskSearch.fullMask(N), cols, ld, rd, nodes);
+    }
+
+    // Same, but gives up between next-column subtrees once the stop flag is raised; -1 if it gave up
+    public long count(AtomicBoolean stopFlag) {
+        return count(stopFlag, new long[1]);
+    }
+
+    // Same, also adding the placements made below the prefix to nodes[0]
+    public long count(AtomicBoolean stopFlag, long[] nodes) {
+        long full = BitmaskSearch.fullMask(N);
+        if (cols == full) return 1;
+
+        long total = 0;
+        long avail = ~(cols | ld | rd) & full;
+        while (avail != 0) {
+            if (stopFlag.get()) return -1;
+            long bit = avail & -avail;
+            avail ^= bit;
+            nodes[0]++;
+            total += BitmaskSearch.count(full, cols | bit, ((ld | bit) << 1) & full, (rd | bit) >>> 1, nodes);
+        }
+        return total;
+    }
+
+    // Hands every complete solution that starts with this prefix to the visitor
+    public void enumerate(SolutionVisitor visitor) {
+        enumerate(visitor, new long[1]);
+    }
+
+    // Same, also adding the placements made below the prefix to nodes[0]
+    public void enumerate(SolutionVisitor visitor, long[] nodes) {
+        int[] queens = new int[N];
+        for (int col = 0; col < rows.length; col++) {
+            queens[rows[col]] = col;
+        }
+        BitmaskSearch.enumerate(BitmaskSearch.fullMask(N), rows.length, cols, ld, rd, queens, visitor, nodes);
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public int getDepth() {
+        return rows.length;
+    }
+
+    public int[] getRows() {
+        return rows.clone();
+    }
+
+    public long getCols() {
+        return cols;
+    }
+
+    public long getLd() {
+        return ld;
+    }
+
+    public long getRd() {
+        return rd;
+    }
+}
@@ -0,0 +1,119 @@
+// Progress and ETA for a count split into prefix tasks. Every task starts with a Knuth estimate of the subtree
+// below its prefix (TreeEstimator); when a task finishes, its estimate is replaced by the placements the count
+// really made there (or kept, for tasks finished by an earlier session of a resumed count), and the pending
+// tasks keep getting more probes while the count goes on.
+//
+// Work done is the size of the finished tasks, so the rate and the ETA follow the measured work.
+
+package solver;
+
+import model.Progress;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class ProgressEstimator {
+
+    public static final int DEFAULT_PROBE_BUDGET = 20_000; // probes over all units, per round
+
+    private final List<PrefixTask> units;
+    private final Map<PrefixTask, Integer> index = new IdentityHashMap<>();
+    private final TreeEstimator.Estimate[] estimates;
+    private final long[] actualNodes;  // -1 = unknown
+    private final boolean[] done;
+    private final SplittableRandom rng;
+
+    private int unitsDone = 0;
+    private long startNanos = System.nanoTime();
+    private double workAtStart = 0;    // inferred work already done when this session started (resumed runs)
+
+    public ProgressEstimator(List<PrefixTask> units, int probeBudget, long seed) {
+        this.units = units;
+        this.estimates = new TreeEstimator.Estimate[units.size()];
+        this.actualNodes = new long[units.size()];
+        this.done = new boolean[units.size()];
+        this.rng = new SplittableRandom(seed);
+        for (int i = 0; i < units.size(); i++) {
+            index.put(units.get(i), i);
+            estimates[i] = new TreeEstimator.Estimate();
+            actualNodes[i] = -1;
+        }
+        refine(probeBudget);
+    }
+
+    // Spends about probeBudget more probes on the units that are still pending
+    public synchronized void refine(int probeBudget) {
+        int pending = units.size() - unitsDone;
+        if (pending == 0) return;
+        int perUnit = Math.max(2, probeBudget / pending);
+        for (int i = 0; i < units.size(); i++) {
+            if (!done[i]) TreeEstimator.refine(estimates[i], units.get(i), perUnit, rng);
+        }
+    }
+
+    // nodes < 0 if they are not known
+    public synchronized void complete(int unit, long nodes) {
+        if (done[unit]) return;
+        done[unit] = true;
+        actualNodes[unit] = nodes;
+        unitsDone++;
+    }
+
+    // For resumed runs: call after marking the units finished by earlier sessions, so the rate (and the ETA)
+    // only reflects work done from now on
+    public synchronized void restartClock() {
+        startNanos = System.nanoTime();
+        workAtStart = progress().getNodesDone();
+    }
+
+    public void complete(PrefixTask unit, long nodes) {
+        Integer i = index.get(unit);
+        if (i != null) complete(i, nodes);
+    }
+
+    public synchronized boolean isDone() {
+        return unitsDone == units.size();
+    }
+
+    // Work inferred from the finished units
+    public synchronized Progress progress() {
+        double work = 0;
+        for (int i = 0; i < units.size(); i++) {
+            if (done[i]) work += size(i);
+        }
+        return build((long) work);
+    }
+
+    private Progress build(long nodesDone) {
+        double total = 0;
+        double pendingVariance = 0;
+        double pendingNodes = 0;
+        for (int i = 0; i < units.size(); i++) {
+            total += size(i);
+            if (!done[i]) {
+                double se = estimates[i].getStandardError();
+                pendingVariance += se * se;
+                pendingNodes += estimates[i].getNodes();
+            }
+        }
+        double relativeError = pendingNodes > 0 ? Math.sqrt(pendingVariance) / pendingNodes : 0;
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double sessionWork = nodesDone - workAtStart;
+        long eta = -1;
+        if (unitsDone == units.size()) {
+            eta = 0;
+        } else if (sessionWork > 0 && elapsedNanos > 0) {
+            double rate = sessionWork / elapsedNanos;
+            eta = (long) (Math.max(0, total - nodesDone) / rate / 1_000_000);
+        }
+        return new Progress((long) total, nodesDone, unitsDone, units.size(), relativeError,
+                elapsedNanos / 1_000_000, eta);
+    }
+
+    private double size(int i) {
+        return done[i] && actualNodes[i] >= 0 ? actualNodes[i] : estimates[i].getNodes();
+    }
+}
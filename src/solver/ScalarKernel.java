@@ -0,0 +1,29 @@
+// ColumnKernel as plain loops: one row of the column at a time, and BoardVerifier for the boards
+
+package solver;
+
+final class ScalarKernel implements ColumnKernel {
+
+    @Override
+    public int nextFree(byte[] rows, byte[] diagonals, byte[] antiDiags, int N, int col, int from) {
+        for (int row = from; row < N; row++) {
+            if ((rows[row] | diagonals[row + col] | antiDiags[row - col + N - 1]) == 0) return row;
+        }
+        return -1;
+    }
+
+    @Override
+    public int countInvalid(int[][] boards, int count, int N) {
+        BoardVerifier verifier = new BoardVerifier(N);
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            if (!verifier.check(boards[i])) invalid++;
+        }
+        return invalid;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,89 @@
+// Headless "count all solutions" mode.
+// The search tree is cut into prefix tasks a few columns deep and the tasks are run on a ForkJoinPool,
+// so idle workers steal the remaining subtrees instead of waiting for the slowest start row.
+//
+// With symmetry enabled only the top half of column 0 is searched: every solution there stands for itself
+// and its vertical mirror (the middle row of an odd board is its own mirror), and the canonical ones
+// (see Symmetry) are counted as fundamental solutions.
+//
+// Nodes in the result are the placements made below the prefixes (the prefixes themselves are not counted).
+
+package solver;
+
+import model.CountResult;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SolutionCounter {
+
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    private final int N;
+    private final int splitDepth;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean stopFlag;
+    private final boolean useSymmetry;
+    private final List<PrefixTask> tasks;
+    private final ProgressEstimator progress;
+
+    public SolutionCounter(int N) {
+        this(N, DEFAULT_SPLIT_DEPTH, ForkJoinPool.commonPool(), new AtomicBoolean(false), false);
+    }
+
+    public SolutionCounter(int N, int splitDepth, ForkJoinPool pool, AtomicBoolean stopFlag, boolean useSymmetry) {
+        BitmaskSearch.checkSize(N);
+        this.N = N;
+        this.splitDepth = Math.max(1, Math.min(splitDepth, N));
+        this.pool = pool;
+        this.stopFlag = stopFlag;
+        this.useSymmetry = useSymmetry;
+        this.tasks = useSymmetry
+                ? PrefixTask.enumerate(N, this.splitDepth, (N + 1) / 2)
+                : PrefixTask.enumerate(N, this.splitDepth);
+        this.progress = new ProgressEstimator(tasks, ProgressEstimator.DEFAULT_PROBE_BUDGET, System.nanoTime());
+    }
+
+    public CountResult count() {
+        long start = System.nanoTime();
+
+        LongAdder total = new LongAdder();
+        LongAdder fundamental = new LongAdder();
+        LongAdder nodes = new LongAdder();
+        PrefixRunner.runAll(pool, tasks, stopFlag, task -> {
+            long[] taskNodes = new long[1];
+            if (useSymmetry) {
+                countSymmetric(task, total, fundamental, taskNodes);
+            } else {
+                total.add(task.count(taskNodes));
+            }
+            nodes.add(taskNodes[0]);
+            progress.complete(task, taskNodes[0]);
+        });
+
+        return new CountResult(N, total.sum(), useSymmetry ? fundamental.sum() : -1,
+                tasks.size(), System.nanoTime() - start, nodes.sum());
+    }
+
+    // Available as soon as the counter is built, so another thread can watch count() progress
+    public ProgressEstimator getProgress() {
+        return progress;
+    }
+
+    private void countSymmetric(PrefixTask task, LongAdder total, LongAdder fundamental, long[] nodes) {
+        int middleRow = (N % 2 == 1) ? N / 2 : -1;
+        int[] scratch = new int[N];
+        long[] counts = new long[2]; // weighted total, fundamental
+
+        task.enumerate(queens -> {
+            // A column-0 queen on the middle row is its own mirror image
+            counts[0] += (middleRow >= 0 && queens[middleRow] == 0) ? 1 : 2;
+            if (Symmetry.isCanonical(queens, scratch)) counts[1]++;
+        }, nodes);
+
+        total.add(counts[0]);
+        fundamental.add(counts[1]);
+    }
+}
@@ -0,0 +1,86 @@
+// Binary layout shared by SolutionFileWriter, SolutionFileReader and SolutionStore (boards only).
+//
+// Header (32 bytes, big-endian): magic "NQSF", version, N, bits per row, bytes per board, reserved, board count.
+// Then fixed-size boards: row r's column in bits [r*b, r*b + b) of the board, b = ceil(log2 N),
+// least significant bits first, padded to whole bytes. Board i therefore starts at HEADER_BYTES + i * bytesPerBoard.
+// Boards are in no particular order: workers append whole buffers as they fill up.
+
+package solver;
+
+import java.nio.ByteBuffer;
+
+public final class SolutionFile {
+
+    public static final int MAGIC = 0x4E515346; // "NQSF"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+
+    private SolutionFile() {
+    }
+
+    public static int bitsPerRow(int N) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(N - 1));
+    }
+
+    public static int bytesPerBoard(int N) {
+        return (N * bitsPerRow(N) + 7) / 8;
+    }
+
+    // queens[row] = col -> bytesPerBoard(N) bytes at the buffer's position
+    public static void pack(int[] queens, int bitsPerRow, ByteBuffer out) {
+        long acc = 0;
+        int bits = 0;
+        for (int row = 0; row < queens.length; row++) {
+            acc |= (long) queens[row] << bits;
+            bits += bitsPerRow;
+            while (bits >= 8) {
+                out.put((byte) acc);
+                acc >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.put((byte) acc);
+        }
+    }
+
+    // Inverse of pack(); fills queens (length N) and advances the buffer by one board
+    public static void unpack(ByteBuffer in, int bitsPerRow, int[] queens) {
+        long mask = (1L << bitsPerRow) - 1;
+        long acc = 0;
+        int bits = 0;
+        for (int row = 0; row < queens.length; row++) {
+            while (bits < bitsPerRow) {
+                acc |= (long) (in.get() & 0xFF) << bits;
+                bits += 8;
+            }
+            queens[row] = (int) (acc & mask);
+            acc >>>= bitsPerRow;
+            bits -= bitsPerRow;
+        }
+    }
+
+    // Same as unpack(), but reads the board at an absolute byte index and leaves the buffer's position alone
+    public static void unpack(ByteBuffer in, int index, int bitsPerRow, int[] queens) {
+        long mask = (1L << bitsPerRow) - 1;
+        long acc = 0;
+        int bits = 0;
+        for (int row = 0; row < queens.length; row++) {
+            while (bits < bitsPerRow) {
+                acc |= (long) (in.get(index++) & 0xFF) << bits;
+                bits += 8;
+            }
+            queens[row] = (int) (acc & mask);
+            acc >>>= bitsPerRow;
+            bits -= bitsPerRow;
+        }
+    }
+
+    static ByteBuffer header(int N, long count) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(N).putInt(bitsPerRow(N)).putInt(bytesPerBoard(N))
+              .putInt(0).putLong(count);
+        header.flip();
+        return header;
+    }
+}
@@ -0,0 +1,98 @@
+// Reads a file written by SolutionFileWriter a window at a time: iteration decodes into a caller-provided
+// array and never holds more than one buffer of the file in memory
+
+package solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SolutionFileReader implements Closeable {
+
+    private static final int WINDOW_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final int N;
+    private final int bitsPerRow;
+    private final int bytesPerBoard;
+    private final long boardCount;
+
+    private final ByteBuffer window;
+    private long windowPosition;   // file offset of the next byte to load into the window
+    private long boardsRead = 0;
+
+    public SolutionFileReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        ByteBuffer header = ByteBuffer.allocate(SolutionFile.HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read the full header
+        }
+        header.flip();
+        if (header.remaining() < SolutionFile.HEADER_BYTES || header.getInt() != SolutionFile.MAGIC) {
+            throw new IOException("Not a solution file: " + path);
+        }
+        int version = header.getInt();
+        if (version != SolutionFile.VERSION) {
+            throw new IOException("Unsupported solution file version " + version);
+        }
+        this.N = header.getInt();
+        this.bitsPerRow = header.getInt();
+        this.bytesPerBoard = header.getInt();
+        header.getInt(); // reserved
+        this.boardCount = header.getLong();
+
+        this.window = ByteBuffer.allocateDirect(Math.max(1, WINDOW_BYTES / bytesPerBoard) * bytesPerBoard);
+        this.window.limit(0);
+        this.windowPosition = SolutionFile.HEADER_BYTES;
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public long getBoardCount() {
+        return boardCount;
+    }
+
+    // Decodes the next board into queens (length N); false once every board was read
+    public boolean next(int[] queens) throws IOException {
+        if (boardsRead >= boardCount) return false;
+
+        if (window.remaining() < bytesPerBoard) {
+            window.clear();
+            while (window.hasRemaining()) {
+                int n = channel.read(window, windowPosition);
+                if (n < 0) break;
+                windowPosition += n;
+            }
+            window.flip();
+            if (window.remaining() < bytesPerBoard) {
+                throw new IOException("Solution file is truncated");
+            }
+        }
+        SolutionFile.unpack(window, bitsPerRow, queens);
+        boardsRead++;
+        return true;
+    }
+
+    // Random access to board `index` without disturbing the iteration
+    public void read(long index, int[] queens) throws IOException {
+        ByteBuffer board = ByteBuffer.allocate(bytesPerBoard);
+        long position = SolutionFile.HEADER_BYTES + index * bytesPerBoard;
+        while (board.hasRemaining()) {
+            int n = channel.read(board, position + board.position());
+            if (n < 0) throw new IOException("Board " + index + " is past the end of the file");
+        }
+        board.flip();
+        SolutionFile.unpack(board, bitsPerRow, queens);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,109 @@
+// Streams every solution for N to a packed binary file (see SolutionFile) while the search runs.
+// Each worker thread fills its own large direct buffer; a full buffer reserves a file region with one atomic
+// add and is written there with a positional FileChannel write, so writers never share a lock.
+
+package solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SolutionFileWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_BYTES = 4 << 20;
+
+    private final int N;
+    private final int bitsPerRow;
+    private final int bytesPerBoard;
+    private final int bufferBytes;
+    private final FileChannel channel;
+    private final AtomicLong nextPosition = new AtomicLong(SolutionFile.HEADER_BYTES);
+    private final Queue<Sink> sinks = new ConcurrentLinkedQueue<>();
+
+    public SolutionFileWriter(Path path, int N) throws IOException {
+        this(path, N, DEFAULT_BUFFER_BYTES);
+    }
+
+    public SolutionFileWriter(Path path, int N, int bufferBytes) throws IOException {
+        this.N = N;
+        this.bitsPerRow = SolutionFile.bitsPerRow(N);
+        this.bytesPerBoard = SolutionFile.bytesPerBoard(N);
+        // Whole boards per buffer, so every flushed region is board-aligned
+        this.bufferBytes = Math.max(1, bufferBytes / bytesPerBoard) * bytesPerBoard;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // Enumerates all solutions for N on the pool and writes them to path; returns the number of boards written
+    public static long writeAll(Path path, int N, int splitDepth, ForkJoinPool pool, AtomicBoolean stopFlag)
+            throws IOException {
+        try (SolutionFileWriter writer = new SolutionFileWriter(path, N)) {
+            ThreadLocal<Sink> perThread = ThreadLocal.withInitial(writer::newSink);
+            List<PrefixTask> tasks = PrefixTask.enumerate(N, splitDepth);
+            PrefixRunner.runAll(pool, tasks, stopFlag, task -> task.enumerate(perThread.get()));
+            writer.finish();
+            return writer.getBoardCount();
+        }
+    }
+
+    // A visitor for one thread; not thread-safe itself
+    public Sink newSink() {
+        Sink sink = new Sink();
+        sinks.add(sink);
+        return sink;
+    }
+
+    public class Sink implements SolutionVisitor {
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+
+        @Override
+        public void visit(int[] queens) {
+            if (buffer.remaining() < bytesPerBoard) {
+                flush();
+            }
+            SolutionFile.pack(queens, bitsPerRow, buffer);
+        }
+
+        void flush() {
+            buffer.flip();
+            long position = nextPosition.getAndAdd(buffer.remaining());
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Flushes every sink and writes the header. Call once all workers are done.
+    public void finish() throws IOException {
+        for (Sink sink : sinks) {
+            sink.flush();
+        }
+        channel.write(SolutionFile.header(N, getBoardCount()), 0);
+        channel.force(false);
+    }
+
+    public long getBoardCount() {
+        return (nextPosition.get() - SolutionFile.HEADER_BYTES) / bytesPerBoard;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,157 @@
+// Solutions for N held off-heap, packed as in SolutionFile (bytesPerBoard(N) bytes per board, 8 for N = 16).
+//
+// Boards live in direct ByteBuffer chunks of a power-of-two number of boards (about CHUNK_BYTES each), so board i
+// is at a fixed offset in chunk i >> chunkShift and random access is O(1). Writers work like SolutionFileWriter's
+// sinks: each thread packs into its own small buffer, and a full buffer reserves a range of board indices with
+// one atomic add and is copied there, so producers only ever synchronize to allocate a new chunk.
+// The heap holds nothing per board; reads decode into caller-provided arrays without allocating.
+//
+// Read once the writers are done and finish() has returned. The memory goes back when the store is collected.
+
+package solver;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SolutionStore {
+
+    public static final int CHUNK_BYTES = 1 << 20;
+    public static final int SINK_BUFFER_BYTES = 64 << 10;
+
+    private final int N;
+    private final int bitsPerRow;
+    private final int bytesPerBoard;
+    private final int chunkShift;   // boards per chunk = 1 << chunkShift
+    private final long chunkMask;
+    private final AtomicLong nextIndex = new AtomicLong();
+    private final Queue<Sink> sinks = new ConcurrentLinkedQueue<>();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    public SolutionStore(int N) {
+        if (N < 1) throw new IllegalArgumentException("N must be at least 1, got " + N);
+        this.N = N;
+        this.bitsPerRow = SolutionFile.bitsPerRow(N);
+        this.bytesPerBoard = SolutionFile.bytesPerBoard(N);
+        this.chunkShift = Math.max(0, 31 - Integer.numberOfLeadingZeros(CHUNK_BYTES / bytesPerBoard));
+        this.chunkMask = (1L << chunkShift) - 1;
+    }
+
+    // Enumerates all solutions for N on the pool into a new store
+    public static SolutionStore collectAll(int N, int splitDepth, ForkJoinPool pool, AtomicBoolean stopFlag) {
+        SolutionStore store = new SolutionStore(N);
+        ThreadLocal<Sink> perThread = ThreadLocal.withInitial(store::newSink);
+        List<PrefixTask> tasks = PrefixTask.enumerate(N, splitDepth);
+        PrefixRunner.runAll(pool, tasks, stopFlag, task -> task.enumerate(perThread.get()));
+        store.finish();
+        return store;
+    }
+
+    // A visitor for one thread; not thread-safe itself
+    public Sink newSink() {
+        Sink sink = new Sink();
+        sinks.add(sink);
+        return sink;
+    }
+
+    public class Sink implements SolutionVisitor {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(Math.max(1, SINK_BUFFER_BYTES / bytesPerBoard) * bytesPerBoard);
+
+        @Override
+        public void visit(int[] queens) {
+            if (buffer.remaining() < bytesPerBoard) {
+                flush();
+            }
+            SolutionFile.pack(queens, bitsPerRow, buffer);
+        }
+
+        void flush() {
+            int boards = buffer.position() / bytesPerBoard;
+            long index = nextIndex.getAndAdd(boards);
+            int from = 0;
+            while (boards > 0) {
+                // Chunks hold whole boards, so a range splits at a chunk boundary only between boards
+                ByteBuffer chunk = chunk((int) (index >>> chunkShift));
+                int inChunk = (int) (index & chunkMask);
+                int n = (int) Math.min(boards, (1L << chunkShift) - inChunk);
+                chunk.put(inChunk * bytesPerBoard, buffer.array(), from, n * bytesPerBoard);
+                index += n;
+                from += n * bytesPerBoard;
+                boards -= n;
+            }
+            buffer.clear();
+        }
+    }
+
+    // Flushes every sink. Call once all writers are done.
+    public void finish() {
+        for (Sink sink : sinks) {
+            sink.flush();
+        }
+    }
+
+    public int getN() {
+        return N;
+    }
+
+    public long getBoardCount() {
+        return nextIndex.get();
+    }
+
+    // Direct memory held by the chunks
+    public long getOffHeapBytes() {
+        ByteBuffer[] current = chunks;
+        long bytes = 0;
+        for (ByteBuffer chunk : current) {
+            if (chunk != null) bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    // Decodes board `index` into queens (length N)
+    public void get(long index, int[] queens) {
+        if (index < 0 || index >= nextIndex.get()) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + nextIndex.get());
+        }
+        ByteBuffer chunk = chunks[(int) (index >>> chunkShift)];
+        SolutionFile.unpack(chunk, (int) (index & chunkMask) * bytesPerBoard, bitsPerRow, queens);
+    }
+
+    // Hands boards [from, to) to the visitor in index order, each decoded into queens (length N) in turn
+    public void forEach(long from, long to, int[] queens, SolutionVisitor visitor) {
+        if (from < 0 || to > nextIndex.get()) {
+            throw new IndexOutOfBoundsException("Boards [" + from + ", " + to + ") of " + nextIndex.get());
+        }
+        ByteBuffer[] current = chunks;
+        for (long index = from; index < to; index++) {
+            ByteBuffer chunk = current[(int) (index >>> chunkShift)];
+            SolutionFile.unpack(chunk, (int) (index & chunkMask) * bytesPerBoard, bitsPerRow, queens);
+            visitor.visit(queens);
+        }
+    }
+
+    public void forEach(int[] queens, SolutionVisitor visitor) {
+        forEach(0, getBoardCount(), queens, visitor);
+    }
+
+    private ByteBuffer chunk(int c) {
+        ByteBuffer[] current = chunks;
+        if (c < current.length && current[c] != null) return current[c];
+        synchronized (this) {
+            current = chunks;
+            if (c < current.length && current[c] != null) return current[c];
+            // Copy on write: a chunk is only ever published through the volatile table
+            int length = c < current.length ? current.length : Math.max(c + 1, current.length * 2);
+            ByteBuffer[] grown = Arrays.copyOf(current, length);
+            grown[c] = ByteBuffer.allocateDirect(bytesPerBoard << chunkShift);
+            chunks = grown;
+            return grown[c];
+        }
+    }
+}
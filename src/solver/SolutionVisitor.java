@@ -0,0 +1,8 @@
+package solver;
+
+// Receives every complete solution found by an enumeration.
+// The array uses the same layout as QueenWorker and Snapshot (queens[row] = col) and is reused
+// by the search, so implementations must copy it if they keep it.
+public interface SolutionVisitor {
+    void visit(int[] queens);
+}
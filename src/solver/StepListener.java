@@ -0,0 +1,7 @@
+package solver;
+
+// Called by long-running engines after each accepted move; returning false aborts the search.
+// queens uses the queens[row] = col layout and is owned by the engine.
+public interface StepListener {
+    boolean step(int[] queens, String status);
+}
@@ -0,0 +1,113 @@
+// The 8 symmetries of the board (identity, 3 rotations, 4 reflections) applied to a solution.
+// A permutation board is transformed by mirroring its index, mirroring its values and/or inverting it,
+// so every transform can be read off the column->row array and its inverse (the queens[] array) without copying.
+//
+// The canonical form of an orbit is its lexicographically smallest column->row array. Its column-0 queen
+// always sits in the top half of the board (a vertical mirror would be smaller otherwise), so a search
+// that only covers the top half of the first column still meets every canonical board exactly once.
+
+package solver;
+
+import java.util.Arrays;
+
+public final class Symmetry {
+
+    private Symmetry() {
+    }
+
+    // queens[row] = col; colToRow is scratch space of the same length.
+    // True when this board is the canonical representative of its orbit.
+    public static boolean isCanonical(int[] queens, int[] colToRow) {
+        invert(queens, colToRow);
+        for (int t = 1; t < 8; t++) {
+            if (compare(colToRow, queens, t) > 0) return false;
+        }
+        return true;
+    }
+
+    // Canonical representative of the board's orbit, returned in the queens[row] = col layout
+    public static int[] canonicalForm(int[] queens) {
+        int N = queens.length;
+        int[] colToRow = new int[N];
+        invert(queens, colToRow);
+
+        int best = 0;
+        for (int t = 1; t < 8; t++) {
+            if (compareTransforms(colToRow, queens, t, best) < 0) best = t;
+        }
+
+        int[] canonicalColToRow = new int[N];
+        for (int i = 0; i < N; i++) {
+            canonicalColToRow[i] = transformed(colToRow, queens, best, i);
+        }
+        int[] canonical = new int[N];
+        invert(canonicalColToRow, canonical);
+        return canonical;
+    }
+
+    // Image of a partial board (queens[row] = col, -1 = empty row, no two queens in one column) under cell
+    // transform t: bit 2 swaps rows and columns, then bit 1 mirrors the rows and bit 0 mirrors the columns
+    public static int[] transformCells(int[] queens, int t) {
+        int N = queens.length;
+        int[] out = new int[N];
+        Arrays.fill(out, -1);
+        for (int row = 0; row < N; row++) {
+            int col = queens[row];
+            if (col < 0) continue;
+            int r = (t & 4) != 0 ? col : row;
+            int c = (t & 4) != 0 ? row : col;
+            if ((t & 2) != 0) r = N - 1 - r;
+            if ((t & 1) != 0) c = N - 1 - c;
+            out[r] = c;
+        }
+        return out;
+    }
+
+    // Undoes transformCells(queens, t)
+    public static int[] untransformCells(int[] queens, int t) {
+        int N = queens.length;
+        int[] out = new int[N];
+        Arrays.fill(out, -1);
+        for (int row = 0; row < N; row++) {
+            int col = queens[row];
+            if (col < 0) continue;
+            int r = (t & 2) != 0 ? N - 1 - row : row;
+            int c = (t & 1) != 0 ? N - 1 - col : col;
+            if ((t & 4) != 0) out[c] = r;
+            else out[r] = c;
+        }
+        return out;
+    }
+
+    private static void invert(int[] perm, int[] out) {
+        for (int i = 0; i < perm.length; i++) {
+            out[perm[i]] = i;
+        }
+    }
+
+    // Element i of transform t: bit 2 picks the inverse, bit 1 mirrors the index, bit 0 mirrors the value
+    private static int transformed(int[] a, int[] inverse, int t, int i) {
+        int N = a.length;
+        int j = (t & 2) != 0 ? N - 1 - i : i;
+        int v = (t & 4) != 0 ? inverse[j] : a[j];
+        return (t & 1) != 0 ? N - 1 - v : v;
+    }
+
+    // Lexicographic comparison of a against its transform t; stops at the first differing element
+    private static int compare(int[] a, int[] inverse, int t) {
+        for (int i = 0; i < a.length; i++) {
+            int v = transformed(a, inverse, t, i);
+            if (a[i] != v) return a[i] - v;
+        }
+        return 0;
+    }
+
+    private static int compareTransforms(int[] a, int[] inverse, int t1, int t2) {
+        for (int i = 0; i < a.length; i++) {
+            int v1 = transformed(a, inverse, t1, i);
+            int v2 = transformed(a, inverse, t2, i);
+            if (v1 != v2) return v1 - v2;
+        }
+        return 0;
+    }
+}
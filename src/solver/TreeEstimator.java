@@ -0,0 +1,120 @@
+// Knuth's random-probe estimate of a backtracking tree: walk one random root-to-leaf path, and at each level
+// multiply the running weight by the number of children there. The sum of the weights is an unbiased estimate
+// of the node count below the start, and the weight at a complete board one of the solution count.
+// Averaging many probes brings the error down; the standard error is tracked alongside.
+
+package solver;
+
+import java.util.SplittableRandom;
+
+public final class TreeEstimator {
+
+    public static final int DEFAULT_PROBES = 2000;
+
+    private TreeEstimator() {
+    }
+
+    // Running mean and variance (Welford) of the probes so far
+    public static class Estimate {
+
+        private long probes;
+        private double meanNodes;
+        private double m2Nodes;
+        private double meanSolutions;
+
+        void add(double nodes, double solutions) {
+            probes++;
+            double delta = nodes - meanNodes;
+            meanNodes += delta / probes;
+            m2Nodes += delta * (nodes - meanNodes);
+            meanSolutions += (solutions - meanSolutions) / probes;
+        }
+
+        public long getProbes() {
+            return probes;
+        }
+
+        public double getNodes() {
+            return meanNodes;
+        }
+
+        public double getSolutions() {
+            return meanSolutions;
+        }
+
+        // Standard error of getNodes()
+        public double getStandardError() {
+            return probes < 2 ? meanNodes : Math.sqrt(m2Nodes / (probes - 1) / probes);
+        }
+    }
+
+    // Whole search tree for N (every placement the counting search makes)
+    public static Estimate estimate(int N, int probes, long seed) {
+        return estimate(PrefixTask.fromRows(N, new int[0]), probes, new SplittableRandom(seed));
+    }
+
+    // Subtree below a prefix; the prefix's own queens are not counted
+    public static Estimate estimate(PrefixTask task, int probes, SplittableRandom rng) {
+        Estimate estimate = new Estimate();
+        refine(estimate, task, probes, rng);
+        return estimate;
+    }
+
+    public static void refine(Estimate estimate, PrefixTask task, int probes, SplittableRandom rng) {
+        long full = BitmaskSearch.fullMask(task.getN());
+        for (int i = 0; i < probes; i++) {
+            probe(estimate, full, task.getCols(), task.getLd(), task.getRd(), rng);
+        }
+    }
+
+    private static void probe(Estimate estimate, long full, long cols, long ld, long rd, SplittableRandom rng) {
+        double weight = 1;
+        double nodes = 0;
+        while (cols != full) {
+            long avail = ~(cols | ld | rd) & full;
+            int children = Long.bitCount(avail);
+            if (children == 0) {
+                estimate.add(nodes, 0); // dead end
+                return;
+            }
+            weight *= children;
+            nodes += weight;
+
+            for (int skip = rng.nextInt(children); skip > 0; skip--) {
+                avail &= avail - 1;
+            }
+            long bit = avail & -avail;
+            cols |= bit;
+            ld = ((ld | bit) << 1) & full;
+            rd = (rd | bit) >>> 1;
+        }
+        estimate.add(nodes, weight);
+    }
+
+    // Nodes per second of one thread running the counting search on N, measured for about `millis`
+    // on random half-filled prefixes (small enough to finish quickly, deep enough to be representative)
+    public static double measureNodesPerSecond(int N, long millis, long seed) {
+        BitmaskSearch.checkSize(N);
+        SplittableRandom rng = new SplittableRandom(seed);
+        long full = BitmaskSearch.fullMask(N);
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long start = System.nanoTime();
+        long nodes = 0;
+        do {
+            long cols = 0, ld = 0, rd = 0;
+            for (int col = 0; col < N / 2; col++) {
+                long avail = ~(cols | ld | rd) & full;
+                if (avail == 0) break;
+                for (int skip = rng.nextInt(Long.bitCount(avail)); skip > 0; skip--) {
+                    avail &= avail - 1;
+                }
+                long bit = avail & -avail;
+                cols |= bit;
+                ld = ((ld | bit) << 1) & full;
+                rd = (rd | bit) >>> 1;
+            }
+            nodes += BitmaskSearch.countNodes(full, cols, ld, rd);
+        } while (System.nanoTime() < deadline);
+        return nodes / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,88 @@
+// ColumnKernel on jdk.incubator.vector, at the platform's preferred vector width.
+// nextFree ORs the three line arrays over SPECIES.length() consecutive rows of the column (they are contiguous in
+// all three) and takes the first lane that is 0. A board of 12 to 32 queens is checked a vector of rows at a time
+// by ORing one-hot line masks and counting the bits; other sizes go to the scalar check, which is faster there.
+// Only ever loaded through ColumnKernel.vector(), after checking that the module is present.
+
+package solver;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorKernel implements ColumnKernel {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final IntVector LANE_INDEX = IntVector.zero(INTS).addIndex(1);
+    private static final IntVector ONE = IntVector.broadcast(INTS, 1);
+    private static final int MIN_VECTOR_N = 12; // below that the masked loads cost more than the scalar check
+    private static final int MAX_VECTOR_N = 32; // diagonals 0..2N-2 must fit the two words
+    private static final ColumnKernel SCALAR = new ScalarKernel();
+
+    @Override
+    public int nextFree(byte[] rows, byte[] diagonals, byte[] antiDiags, int N, int col, int from) {
+        for (int row = from; row < N; row += BYTES.length()) {
+            ByteVector used = ByteVector.fromArray(BYTES, rows, row)
+                    .or(ByteVector.fromArray(BYTES, diagonals, row + col))
+                    .or(ByteVector.fromArray(BYTES, antiDiags, row - col + N - 1));
+            VectorMask<Byte> free = used.compare(VectorOperators.EQ, (byte) 0);
+            if (free.anyTrue()) return row + free.firstTrue(); // the padding of rows is never free
+        }
+        return -1;
+    }
+
+    @Override
+    public int countInvalid(int[][] boards, int count, int N) {
+        if (N < MIN_VECTOR_N || N > MAX_VECTOR_N) return SCALAR.countInvalid(boards, count, N);
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            if (!isValid(boards[i], N)) invalid++;
+        }
+        return invalid;
+    }
+
+    // Every row's column, "/" and "\" diagonal as a one-hot bit in two int words (lines 0-31 and 32-63), ORed
+    // over the board: the N queens are on N different lines of each kind exactly when every OR has N bits
+    private static boolean isValid(int[] queens, int N) {
+        if (queens.length != N) return false;
+        IntVector zero = IntVector.zero(INTS);
+        IntVector colsLow = zero, diagLow = zero, diagHigh = zero, antiLow = zero, antiHigh = zero;
+        for (int row = 0; row < N; row += INTS.length()) {
+            VectorMask<Integer> inRange = INTS.indexInRange(row, N);
+            IntVector cols = IntVector.fromArray(INTS, queens, row, inRange);
+            if (cols.compare(VectorOperators.LT, 0).or(cols.compare(VectorOperators.GE, N)).and(inRange).anyTrue()) {
+                return false;
+            }
+            IntVector rows = LANE_INDEX.add(row);
+            colsLow = colsLow.lanewise(VectorOperators.OR, ONE.lanewise(VectorOperators.LSHL, cols), inRange);
+            IntVector diag = rows.add(cols);
+            diagLow = diagLow.lanewise(VectorOperators.OR, low(diag), inRange);
+            diagHigh = diagHigh.lanewise(VectorOperators.OR, high(diag), inRange);
+            IntVector anti = rows.sub(cols).add(N - 1);
+            antiLow = antiLow.lanewise(VectorOperators.OR, low(anti), inRange);
+            antiHigh = antiHigh.lanewise(VectorOperators.OR, high(anti), inRange);
+        }
+        return Integer.bitCount(colsLow.reduceLanes(VectorOperators.OR)) == N
+                && Integer.bitCount(diagLow.reduceLanes(VectorOperators.OR))
+                        + Integer.bitCount(diagHigh.reduceLanes(VectorOperators.OR)) == N
+                && Integer.bitCount(antiLow.reduceLanes(VectorOperators.OR))
+                        + Integer.bitCount(antiHigh.reduceLanes(VectorOperators.OR)) == N;
+    }
+
+    // Bit for lines 0-31 (shift counts are taken mod 32, so the other half is masked off)
+    private static IntVector low(IntVector lines) {
+        return ONE.lanewise(VectorOperators.LSHL, lines).blend(0, lines.compare(VectorOperators.GE, 32));
+    }
+
+    private static IntVector high(IntVector lines) {
+        return ONE.lanewise(VectorOperators.LSHL, lines).blend(0, lines.compare(VectorOperators.LT, 32));
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+}
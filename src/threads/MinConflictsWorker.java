@@ -0,0 +1,69 @@
+package threads;
+
+import controller.SnapshotChannel;
+import model.RunConfig;
+import solver.MinConflicts;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// One restart lane of the min-conflicts engine. Lanes keep restarting from fresh random starts until one of
+// them repairs its board; the first to finish stores the placement in `solution` and raises the stop flag
+// so the other lanes give up.
+public class MinConflictsWorker implements Runnable {
+
+    private final int threadId;
+    private final int numLanes;
+    private final int N;
+    private final long baseSeed;
+    private final AtomicBoolean stopFlag;
+    private final AtomicReference<int[]> solution;
+    private final Pacer pacer;
+
+    public MinConflictsWorker(int threadId,
+                              int numLanes,
+                              int N,
+                              long baseSeed,
+                              AtomicBoolean stopFlag,
+                              AtomicReference<int[]> solution,
+                              SnapshotChannel channel,
+                              RunConfig config,
+                              AtomicBoolean watched,
+                              WorkerCounters counters) {
+
+        this.threadId = threadId;
+        this.numLanes = numLanes;
+        this.N = N;
+        this.baseSeed = baseSeed;
+        this.stopFlag = stopFlag;
+        this.solution = solution;
+        this.pacer = new Pacer(threadId, config, watched, counters, channel);
+    }
+
+    @Override
+    public void run() {
+        pacer.start();
+        if (!MinConflicts.hasSolution(N)) return;
+
+        MinConflicts search = null;
+        for (long attempt = 0; !stopFlag.get() && !Thread.currentThread().isInterrupted(); attempt++) {
+            long seed = baseSeed + threadId + attempt * numLanes; // distinct seeds across lanes and restarts
+            if (search == null) {
+                search = new MinConflicts(N, seed);
+            } else {
+                pacer.count(WorkerCounters.BACKTRACKS); // a restart is this engine's backtrack
+                search.restart(seed);
+            }
+            pacer.emit(search.getQueens(), "INITIAL");
+
+            if (search.solve(MinConflicts.defaultSwapBudget(N), stopFlag, pacer::step)) {
+                if (solution.compareAndSet(null, search.getQueens())) {
+                    pacer.count(WorkerCounters.SOLUTIONS);
+                    pacer.emit(search.getQueens(), "SOLUTION");
+                    stopFlag.set(true); // cancel the other lanes
+                }
+                return;
+            }
+        }
+    }
+}
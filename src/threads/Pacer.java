@@ -0,0 +1,117 @@
+// Pacing and snapshot emission shared by the workers: decides, per RunConfig, when a step publishes the board,
+// sleeps between steps in animated mode and keeps the lane's counters up to date
+
+package threads;
+
+import controller.SnapshotChannel;
+import controller.SnapshotRecorder;
+import controller.SnapshotRing;
+import model.RunConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class Pacer {
+
+    private static final int TIME_CHECK_MASK = 1023; // read the clock once every 1024 steps
+
+    private final int threadId;
+    private final RunConfig config;
+    private final AtomicBoolean watched; // false -> nobody consumes snapshots, skip building them
+    private final WorkerCounters counters; // indexed by threadId (the lane)
+    private final SnapshotChannel channel;
+
+    private SnapshotRing ring; // this run's preallocated boards, taken from the channel on start
+    private long placements = 0; // nodes this pacer's worker visited
+    private long stepsSinceEmit = 0;
+    private long lastEmitNanos = System.nanoTime();
+
+    public Pacer(int threadId, RunConfig config, AtomicBoolean watched, WorkerCounters counters, SnapshotChannel channel) {
+        this.threadId = threadId;
+        this.config = config;
+        this.watched = watched;
+        this.counters = counters;
+        this.channel = channel;
+    }
+
+    // Call once when the worker starts running
+    public void start() {
+        ring = channel.ring(threadId);
+    }
+
+    public void count(int counter) {
+        counters.increment(threadId, counter);
+    }
+
+    // Called after every placement or removal. Records the step if the run is being recorded (every step, so a
+    // recording can be stepped through whatever the run mode samples), publishes a snapshot when the run mode
+    // asks for one and paces the search in animated mode. Returns false if the worker was interrupted.
+    public boolean step(int[] queens, String status) {
+        stepsSinceEmit++;
+        if (status.equals("BACKTRACKING")) {
+            counters.increment(threadId, WorkerCounters.BACKTRACKS);
+        } else {
+            counters.increment(threadId, WorkerCounters.PLACEMENTS);
+            placements++;
+        }
+        record(queens);
+
+        switch (config.getMode()) {
+            case ANIMATED:
+                publish(queens, status);
+                try {
+                    Thread.sleep(config.getDelayMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return true;
+
+            case SAMPLED:
+                long everyNodes = config.getSampleEveryNodes();
+                if ((everyNodes > 0 && stepsSinceEmit >= everyNodes) || timeToEmit()) {
+                    publish(queens, status);
+                }
+                return true;
+
+            default: // TURBO
+                if (timeToEmit()) {
+                    publish(queens, status);
+                }
+                return true;
+        }
+    }
+
+    private boolean timeToEmit() {
+        long everyMs = config.getSampleEveryMs();
+        if (everyMs <= 0 || (stepsSinceEmit & TIME_CHECK_MASK) != 0) return false;
+        return System.nanoTime() - lastEmitNanos >= TimeUnit.MILLISECONDS.toNanos(everyMs);
+    }
+
+    public long getPlacements() {
+        return placements;
+    }
+
+    // Records and publishes the board unconditionally (as long as someone is watching)
+    public void emit(int[] queens, String status) {
+        record(queens);
+        publish(queens, status);
+    }
+
+    private void record(int[] queens) {
+        SnapshotRecorder recorder = channel.getRecorder();
+        if (recorder != null) recorder.record(threadId, queens, System.currentTimeMillis());
+    }
+
+    private void publish(int[] queens, String status) {
+        stepsSinceEmit = 0;
+        lastEmitNanos = System.nanoTime();
+
+        if (ring == null || !watched.get()) return;
+
+        counters.increment(threadId, WorkerCounters.SNAPSHOTS_EMITTED);
+        if (ring.publish(queens, System.currentTimeMillis())) {
+            counters.increment(threadId, WorkerCounters.SNAPSHOTS_DROPPED);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package threads;
 
-import model.Snapshot;
+import controller.SnapshotChannel;
+import model.RunConfig;
+import model.RunMode;
+import solver.BitBoard;
 
 import java.util.Arrays;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class QueenWorker implements Runnable {
@@ -12,37 +14,55 @@ public class QueenWorker implements Runnable {
     private final int startRow;
     private final int N;
     private final AtomicBoolean stopFlag;
-    private final BlockingQueue<Snapshot> queue;
+    private final Pacer pacer;
+
+    private int[] solution;      // first solution from the start queen, once found
+    private boolean exhausted;   // true once the search proved there is none
 
     private static final int START_COL = 0;
-    private static final int SNAPSHOT_INTERVAL = 1; // Emit snapshot after every step
-    private static final int DELAY_MS = 100; // Delay between operations in milliseconds
 
     public QueenWorker(int threadId,
                        int startRow,
                        int startCol,
                        int N,
                        AtomicBoolean stopFlag,
-                       BlockingQueue<Snapshot> queue) {
+                       SnapshotChannel channel) {
+        this(threadId, startRow, startCol, N, stopFlag, channel,
+                RunConfig.defaults(RunMode.ANIMATED), new AtomicBoolean(true), new WorkerCounters(threadId + 1));
+    }
+
+    public QueenWorker(int threadId,
+                       int startRow,
+                       int startCol,
+                       int N,
+                       AtomicBoolean stopFlag,
+                       SnapshotChannel channel,
+                       RunConfig config,
+                       AtomicBoolean watched,
+                       WorkerCounters counters) {
 
         this.threadId = threadId;
         this.startRow = startRow;
         this.N = N;
         this.stopFlag = stopFlag;
-        this.queue = queue;
+        this.pacer = new Pacer(threadId, config, watched, counters, channel);
     }
 
     @Override
     public void run() {
 
+        pacer.start();
+
         int[] queens = new int[N];
         Arrays.fill(queens, -1);
+        BitBoard board = new BitBoard(N);
 
         // Initial placement
         queens[startRow] = START_COL;
+        board.place(startRow, START_COL);
         
         // Emit initial snapshot
-        emitSnapshot(queens, "INITIAL");
+        pacer.emit(queens, "INITIAL");
 
         int col = START_COL + 1;
         boolean isFirstTimeAtCol1 = true; // Track if this is the first time visiting column 1
@@ -51,32 +71,24 @@ public class QueenWorker implements Runnable {
 
             // Check if we've found a solution
             if (col == N) {
-                emitSnapshot(queens, "SOLUTION");
+                solution = queens.clone();
+                pacer.count(WorkerCounters.SOLUTIONS);
+                pacer.emit(queens, "SOLUTION");
                 return;
             }
 
             // Try to place a queen in the current column
             boolean placed = false;
             
-            for (int row = 0; row < N; row++) {
-                if (isSafe(queens, row, col)) {
-                    queens[row] = col;
-                    placed = true;
-                    
-                    // Emit snapshot after placing a queen
-                    emitSnapshot(queens, "SEARCHING");
-                    
-                    // Add delay to slow down operations
-                    try {
-                        Thread.sleep(DELAY_MS);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                    
-                    col++; // Move to next column
-                    break;
-                }
+            int row = board.nextSafeRow(col, 0);
+            if (row >= 0) {
+                queens[row] = col;
+                board.place(row, col);
+                placed = true;
+                
+                if (!pacer.step(queens, "SEARCHING")) return;
+                
+                col++; // Move to next column
             }
 
             // If we couldn't place a queen, we need to backtrack
@@ -89,46 +101,28 @@ public class QueenWorker implements Runnable {
                     col--; // Move back to previous column
 
                     // Find and remove the queen in the current column
-                    int prevRow = findQueenRow(queens, col);
+                    int prevRow = board.queenRow(col);
                     if (prevRow < 0) {
                         // No queen in this column, continue backtracking
                         continue;
                     }
                     
                     queens[prevRow] = -1;
+                    board.remove(prevRow, col);
                     
-                    // Emit snapshot after removing queen (backtracking)
-                    emitSnapshot(queens, "BACKTRACKING");
-                    
-                    // Add delay to slow down operations
-                    try {
-                        Thread.sleep(DELAY_MS);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
+                    if (!pacer.step(queens, "BACKTRACKING")) return;
                     
                     // Try to find the next safe position in this column
                     // Start searching from the row after the one we just removed
-                    for (int row = prevRow + 1; row < N; row++) {
-                        if (isSafe(queens, row, col)) {
-                            queens[row] = col;
-                            foundAlternative = true;
-                            
-                            // Emit snapshot after placing alternative queen
-                            emitSnapshot(queens, "SEARCHING");
-                            
-                            // Add delay to slow down operations
-                            try {
-                                Thread.sleep(DELAY_MS);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                return;
-                            }
-                            
-                            col++; // Move forward to next column
-                            break;
-                        }
+                    int nextRow = board.nextSafeRow(col, prevRow + 1);
+                    if (nextRow >= 0) {
+                        queens[nextRow] = col;
+                        board.place(nextRow, col);
+                        foundAlternative = true;
+                        
+                        if (!pacer.step(queens, "SEARCHING")) return;
+                        
+                        col++; // Move forward to next column
                     }
                     
                     // If we found an alternative, break out of backtracking loop
@@ -146,7 +140,10 @@ public class QueenWorker implements Runnable {
                         // Clear all queens except the starting one
                         Arrays.fill(queens, -1);
                         queens[startRow] = START_COL;
-                        emitSnapshot(queens, "TERMINATED");
+                        board.clearAll();
+                        board.place(startRow, START_COL);
+                        exhausted = true;
+                        pacer.emit(queens, "TERMINATED");
                         return; // Exit the thread - no more attempts
                     }
                     
@@ -154,36 +151,22 @@ public class QueenWorker implements Runnable {
                     isFirstTimeAtCol1 = false;
                     
                     // Check if there's any queen already in column 1
-                    int existingRow = findQueenRow(queens, col);
+                    int existingRow = board.queenRow(col);
                     
                     // If there's a queen in column 1, remove it first
                     if (existingRow >= 0) {
                         queens[existingRow] = -1;
-                        emitSnapshot(queens, "BACKTRACKING");
-                        try {
-                            Thread.sleep(DELAY_MS);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            return;
-                        }
+                        board.remove(existingRow, col);
+                        if (!pacer.step(queens, "BACKTRACKING")) return;
                     }
                     
                     // Try to place a queen in column 1, starting from row 0
-                    boolean canPlaceInCol1 = false;
-                    for (int row = 0; row < N; row++) {
-                        if (isSafe(queens, row, col)) {
-                            queens[row] = col;
-                            canPlaceInCol1 = true;
-                            emitSnapshot(queens, "SEARCHING");
-                            try {
-                                Thread.sleep(DELAY_MS);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                return;
-                            }
-                            col++;
-                            break;
-                        }
+                    int col1Row = board.nextSafeRow(col, 0);
+                    if (col1Row >= 0) {
+                        queens[col1Row] = col;
+                        board.place(col1Row, col);
+                        if (!pacer.step(queens, "SEARCHING")) return;
+                        col++;
                     }
                     
                     // If we can't place in column 1 on first visit, continue to next iteration
@@ -193,29 +176,18 @@ public class QueenWorker implements Runnable {
         }
     }
 
-    private boolean isSafe(int[] queens, int row, int col) {
-        for (int r = 0; r < queens.length; r++) {
-            int c = queens[r];
-            if (c == -1) continue;
-
-            if (r == row) return false;
-            if (Math.abs(r - row) == Math.abs(c - col)) return false;
-        }
-        return true;
+    // The first solution found (queens[row] = col), or null if the search was stopped or there is none
+    public int[] getSolution() {
+        return solution;
     }
 
-    private int findQueenRow(int[] queens, int col) {
-        for (int r = 0; r < queens.length; r++) {
-            if (queens[r] == col) return r;
-        }
-        return -1;
+    // Placements made so far (the nodes of the search tree this worker visited)
+    public long getNodes() {
+        return pacer.getPlacements();
     }
 
-    private void emitSnapshot(int[] queens, String status) {
-        queue.offer(new Snapshot(
-                threadId,
-                queens.clone(),
-                System.currentTimeMillis()
-        ));
+    // True if the search ran to completion without finding a solution
+    public boolean isExhausted() {
+        return exhausted;
     }
-}
\ No newline at end of file
+}
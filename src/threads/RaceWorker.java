@@ -0,0 +1,85 @@
+package threads;
+
+import controller.SnapshotChannel;
+import model.RunConfig;
+import model.ValueOrder;
+import solver.OrderedBacktracking;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// One lane of the first-solution race. Every lane backtracks over the whole board with its own value ordering;
+// the first to complete a board stores it in `solution`, publishes it and raises the stop flag, which the other
+// lanes check on every node. RANDOM lanes restart with a new ordering whenever their node budget runs out,
+// doubling the budget each time, so one unlucky ordering cannot hold them in a heavy-tailed subtree.
+public class RaceWorker implements Runnable {
+
+    public static final long INITIAL_BUDGET_PER_QUEEN = 16;
+
+    private final int threadId;
+    private final int N;
+    private final ValueOrder order;
+    private final long seed;
+    private final AtomicBoolean stopFlag;
+    private final AtomicReference<int[]> solution;
+    private final Pacer pacer;
+
+    public RaceWorker(int threadId,
+                      int N,
+                      ValueOrder order,
+                      long seed,
+                      AtomicBoolean stopFlag,
+                      AtomicReference<int[]> solution,
+                      SnapshotChannel channel,
+                      RunConfig config,
+                      AtomicBoolean watched,
+                      WorkerCounters counters) {
+
+        this.threadId = threadId;
+        this.N = N;
+        this.order = order;
+        this.seed = seed;
+        this.stopFlag = stopFlag;
+        this.solution = solution;
+        this.pacer = new Pacer(threadId, config, watched, counters, channel);
+    }
+
+    // The ordering lane i of a race uses: a restarting randomized lane first, since it is the only one that cannot
+    // get stuck in one heavy subtree (so a single-lane race always finishes), then the deterministic heuristics,
+    // then more randomized lanes
+    public static ValueOrder portfolio(int lane) {
+        switch (lane) {
+            case 0: return ValueOrder.RANDOM;
+            case 1: return ValueOrder.KNIGHT_STEP;
+            case 2: return ValueOrder.MIDDLE_OUT;
+            case 3: return ValueOrder.ROW_ORDER;
+            case 4: return ValueOrder.KNIGHT_STEP; // second knight lane, shifted by one row
+            default: return ValueOrder.RANDOM;
+        }
+    }
+
+    @Override
+    public void run() {
+        pacer.start();
+
+        OrderedBacktracking search = new OrderedBacktracking(N, order, threadId == 4 ? 1 : 0, seed);
+        long budget = order == ValueOrder.RANDOM ? INITIAL_BUDGET_PER_QUEEN * N : Long.MAX_VALUE;
+
+        for (long attempt = 1; !stopFlag.get() && !Thread.currentThread().isInterrupted(); attempt++) {
+            if (search.solve(budget, stopFlag, pacer::step)) {
+                int[] queens = search.getQueens();
+                if (solution.compareAndSet(null, queens)) {
+                    stopFlag.set(true); // cancel the losers first, then show the winning board
+                    pacer.count(WorkerCounters.SOLUTIONS);
+                    pacer.emit(queens, "SOLUTION");
+                }
+                return;
+            }
+            if (search.isExhausted() || order != ValueOrder.RANDOM) return;
+
+            pacer.count(WorkerCounters.BACKTRACKS); // a restart counts as one more backtrack
+            search.restart(seed + attempt * 0x9E3779B97F4A7C15L);
+            budget *= 2;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// Per-lane solver counters. Each lane writes only its own block of a shared long[], and blocks are 128 bytes
+// apart so two lanes never share a cache line. Writes are opaque, so readers on other threads see
+// recent values without the workers paying for fences or atomic read-modify-writes.
+
+package threads;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+public class WorkerCounters {
+
+    public static final int PLACEMENTS = 0;
+    public static final int BACKTRACKS = 1;
+    public static final int SOLUTIONS = 2;
+    public static final int SNAPSHOTS_EMITTED = 3;
+    public static final int SNAPSHOTS_DROPPED = 4; // replaced in the ring before the consumer read them
+
+    private static final int STRIDE = 16; // longs per lane = 128 bytes
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int lanes;
+    private final long[] values;
+
+    public WorkerCounters(int lanes) {
+        this.lanes = lanes;
+        // One spare block on each side keeps the first and last lane off neighbouring objects' lines too
+        this.values = new long[(lanes + 2) * STRIDE];
+    }
+
+    // Only called by the thread currently running `lane`
+    public void increment(int lane, int counter) {
+        int i = (lane + 1) * STRIDE + counter;
+        LONGS.setOpaque(values, i, (long) LONGS.getOpaque(values, i) + 1);
+    }
+
+    public long get(int lane, int counter) {
+        return (long) LONGS.getOpaque(values, (lane + 1) * STRIDE + counter);
+    }
+
+    public long sum(int counter) {
+        long total = 0;
+        for (int lane = 0; lane < lanes; lane++) {
+            total += get(lane, counter);
+        }
+        return total;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+}
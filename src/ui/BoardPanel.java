@@ -1,110 +1,214 @@
 package ui;
 
-import model.Snapshot;
+import model.BoardView;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.*;
-import java.util.List;
 
 public class BoardPanel extends JPanel {
 
+    private static final Color LIGHT_CELL = new Color(18, 26, 33);
+    private static final Color DARK_CELL = new Color(64, 64, 64);
+
     private int N = 8;
 
-    private Map<Integer, Snapshot> latestStates = new HashMap<>();
+    // Latest board per thread id (boards[threadId][row] = col), copied out of the snapshot views
+    private int[][] boards = new int[0][];
     private Map<Integer, Color> threadColorMap = new HashMap<>();
 
+    // Checkerboard rendered once per (N, cellSize)
+    private BufferedImage gridImage;
+    private int gridN = -1;
+    private int gridCellSize = -1;
+
+    // Cell index: cellHead[row * N + col] is the first entry in that cell, next[] chains the rest.
+    // An entry is threadId * N + row, so the thread and the row come straight out of the entry.
+    private int[] cellHead = new int[0];
+    private int[] next = new int[0];
+    private boolean indexStale = true;
+
     public BoardPanel() {
         setPreferredSize(new Dimension(600, 600));
     }
 
     public void setBoardSize(int n) {
         this.N = n;
+        this.boards = new int[0][];
+        this.indexStale = true;
         repaint();
     }
 
     public void clearBoard() {
-        this.latestStates.clear();
+        this.boards = new int[0][];
+        this.indexStale = true;
         repaint();
     }
 
-    public void updateBoardState(Map<Integer, Snapshot> latestStates, Map<Integer, Color> threadColors) {
-        this.latestStates = new HashMap<>(latestStates);
+    public void updateBoardState(Map<Integer, ? extends BoardView> latestStates, Map<Integer, Color> threadColors) {
         this.threadColorMap = threadColors;
-        repaint();
+
+        // Bounding box of the cells that changed since the last update
+        int minRow = Integer.MAX_VALUE, maxRow = -1, minCol = Integer.MAX_VALUE, maxCol = -1;
+
+        for (Map.Entry<Integer, ? extends BoardView> entry : latestStates.entrySet()) {
+            int threadId = entry.getKey();
+            BoardView view = entry.getValue();
+            if (view.getN() != N) continue; // left over from a run with another board size
+
+            int[] board = boardFor(threadId);
+            for (int row = 0; row < N; row++) {
+                int oldCol = board[row];
+                int newCol = view.getQueen(row);
+                if (oldCol == newCol) continue;
+
+                board[row] = newCol;
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+                if (oldCol >= 0) {
+                    minCol = Math.min(minCol, oldCol);
+                    maxCol = Math.max(maxCol, oldCol);
+                }
+                if (newCol >= 0) {
+                    minCol = Math.min(minCol, newCol);
+                    maxCol = Math.max(maxCol, newCol);
+                }
+            }
+        }
+
+        if (maxRow < 0 || maxCol < 0) return; // nothing moved
+        indexStale = true;
+
+        // Crowded or small cells draw their circles past the cell edges, so the old and new circles can reach
+        // into the neighbours
+        int cellSize = cellSize();
+        int overflow = overflow(cellSize);
+        repaint(minCol * cellSize - overflow, minRow * cellSize - overflow,
+                (maxCol - minCol + 1) * cellSize + 2 * overflow, (maxRow - minRow + 1) * cellSize + 2 * overflow);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        if (N <= 0) return;
+    public void updateBoard(HashMap<Integer, ? extends BoardView> latestStates, HashMap<Integer, Color> threadColors) {
+        updateBoardState(latestStates, threadColors);
+    }
+
+    private int[] boardFor(int threadId) {
+        if (threadId >= boards.length) {
+            boards = Arrays.copyOf(boards, threadId + 1);
+        }
+        if (boards[threadId] == null) {
+            boards[threadId] = new int[N];
+            Arrays.fill(boards[threadId], -1);
+        }
+        return boards[threadId];
+    }
 
-        int size = Math.min(getWidth(), getHeight());
-        int cellSize = size / N;
+    // How far a cell's queens can be drawn past its edges: every lane's circle side by side, plus the border
+    private int overflow(int cellSize) {
+        int lanes = Math.max(1, boards.length);
+        int circleSize = Math.max(8, cellSize / (lanes + 1));
+        int totalWidth = (lanes - 1) * (circleSize + 2) + circleSize + 1;
+        return Math.max(0, (totalWidth - cellSize + 1) / 2) + 1;
+    }
 
-        // Draw grid
-        for (int r = 0; r < N; r++) {
-            for (int c = 0; c < N; c++) {
-                if ((r + c) % 2 == 0)
-                    g.setColor(new Color(18, 26, 33));
-                else
-                    g.setColor(new Color(64, 64, 64));
-                g.fillRect(c * cellSize, r * cellSize, cellSize, cellSize);
+    private int cellSize() {
+        return N <= 0 ? 0 : Math.min(getWidth(), getHeight()) / N;
+    }
+
+    private void rebuildIndex() {
+        int cells = N * N;
+        int entries = boards.length * N;
+        if (cellHead.length != cells) cellHead = new int[cells];
+        if (next.length < entries) next = new int[entries];
+        Arrays.fill(cellHead, -1);
+
+        // Walk threads from the highest id down so each cell's chain lists thread ids in ascending order
+        for (int threadId = boards.length - 1; threadId >= 0; threadId--) {
+            int[] board = boards[threadId];
+            if (board == null) continue;
+            for (int row = 0; row < N; row++) {
+                int col = board[row];
+                if (col < 0 || col >= N) continue;
+                int cell = row * N + col;
+                int entry = threadId * N + row;
+                next[entry] = cellHead[cell];
+                cellHead[cell] = entry;
             }
         }
+        indexStale = false;
+    }
 
-        // Build a map of cell positions to list of thread IDs that have queens there
-        Map<String, List<Integer>> cellToThreads = new HashMap<>();
-        
-        for (Map.Entry<Integer, Snapshot> entry : latestStates.entrySet()) {
-            int threadId = entry.getKey();
-            Snapshot snapshot = entry.getValue();
-            int[] queens = snapshot.getQueens();
-
-            for (int row = 0; row < queens.length; row++) {
-                int col = queens[row];
-                if (col >= 0 && col < N && row < N) {
-                    String cellKey = row + "," + col;
-                    cellToThreads.computeIfAbsent(cellKey, k -> new ArrayList<>()).add(threadId);
+    private BufferedImage gridImage(int cellSize) {
+        if (gridImage == null || gridN != N || gridCellSize != cellSize) {
+            int size = Math.max(1, N * cellSize);
+            gridImage = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = gridImage.createGraphics();
+            for (int r = 0; r < N; r++) {
+                for (int c = 0; c < N; c++) {
+                    g.setColor((r + c) % 2 == 0 ? LIGHT_CELL : DARK_CELL);
+                    g.fillRect(c * cellSize, r * cellSize, cellSize, cellSize);
                 }
             }
+            g.dispose();
+            gridN = N;
+            gridCellSize = cellSize;
         }
+        return gridImage;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (N <= 0) return;
+
+        int cellSize = cellSize();
+        if (cellSize <= 0) return;
+
+        // Draw grid
+        g.drawImage(gridImage(cellSize), 0, 0, null);
+
+        if (indexStale) rebuildIndex();
+
+        // Only the cells inside the dirty region need their queens redrawn, plus the cells around it whose
+        // circles reach into it
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int margin = (overflow(cellSize) + cellSize - 1) / cellSize;
+        int firstRow = Math.max(0, clip.y / cellSize - margin);
+        int lastRow = Math.min(N - 1, (clip.y + clip.height) / cellSize + margin);
+        int firstCol = Math.max(0, clip.x / cellSize - margin);
+        int lastCol = Math.min(N - 1, (clip.x + clip.width) / cellSize + margin);
 
         // Draw queens: if multiple threads have queens in the same cell, show multiple circles
-        for (Map.Entry<String, List<Integer>> cellEntry : cellToThreads.entrySet()) {
-            String[] parts = cellEntry.getKey().split(",");
-            int row = Integer.parseInt(parts[0]);
-            int col = Integer.parseInt(parts[1]);
-            List<Integer> threadIds = cellEntry.getValue();
-            
-            int numQueens = threadIds.size();
-            int circleSize = Math.max(8, cellSize / (numQueens + 1));
-            int spacing = circleSize + 2;
-            
-            // Calculate starting position to center the circles
-            int totalWidth = (numQueens - 1) * spacing + circleSize;
-            int startX = col * cellSize + (cellSize - totalWidth) / 2;
-            int startY = row * cellSize + (cellSize - circleSize) / 2;
-            
-            for (int i = 0; i < numQueens; i++) {
-                int threadId = threadIds.get(i);
-                Color color = threadColorMap.getOrDefault(threadId, Color.BLACK);
-                g.setColor(color);
-                
-                int x = startX + i * spacing;
-                int y = startY;
-                g.fillOval(x, y, circleSize, circleSize);
-                
-                // Draw a white border for better visibility
-                g.setColor(Color.WHITE);
-                g.drawOval(x, y, circleSize, circleSize);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int head = cellHead[row * N + col];
+                if (head < 0) continue;
+
+                int numQueens = 0;
+                for (int e = head; e >= 0; e = next[e]) numQueens++;
+
+                int circleSize = Math.max(8, cellSize / (numQueens + 1));
+                int spacing = circleSize + 2;
+
+                // Calculate starting position to center the circles
+                int totalWidth = (numQueens - 1) * spacing + circleSize;
+                int startX = col * cellSize + (cellSize - totalWidth) / 2;
+                int startY = row * cellSize + (cellSize - circleSize) / 2;
+
+                int i = 0;
+                for (int e = head; e >= 0; e = next[e], i++) {
+                    int threadId = e / N;
+                    g.setColor(threadColorMap.getOrDefault(threadId, Color.BLACK));
+
+                    int x = startX + i * spacing;
+                    g.fillOval(x, startY, circleSize, circleSize);
+
+                    // Draw a white border for better visibility
+                    g.setColor(Color.WHITE);
+                    g.drawOval(x, startY, circleSize, circleSize);
+                }
             }
         }
     }
-
-    public void updateBoard(HashMap<Integer, Snapshot> latestStates, HashMap<Integer, Color> threadColors) {
-        this.latestStates = new HashMap<>(latestStates);
-        this.threadColorMap = threadColors;
-        repaint();
-    }
 }
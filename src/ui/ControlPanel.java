@@ -1,20 +1,45 @@
 package ui;
 
+import controller.ExecutorStrategy;
 import controller.SnapshotConsumer;
 import controller.ThreadManager;
+import model.CountResult;
+import model.Engine;
+import model.Progress;
+import model.RunConfig;
+import model.RunMode;
+import solver.BitmaskSearch;
+import solver.TreeEstimator;
 import ui.MainFrame;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 public class ControlPanel extends JPanel {
 
+    private static final int PROGRESS_REFRESH_MS = 500;
+    private static final int PREVIEW_PROBES = 500;
+
     private ThreadManager threadManager;
     private SnapshotConsumer snapshotConsumer;
 
     private JSpinner nInput;
+    private JComboBox<RunMode> modeInput;
+    private JComboBox<Engine> engineInput;
+    private JSpinner threadsInput;
+    private JComboBox<ExecutorStrategy> executorInput;
     private JButton runBtn;
+    private JButton countBtn;
     private JButton stopBtn;
+    private JLabel progressLabel;
+    private JCheckBox recordInput;
+    private JButton replayBtn;
 
     private BoardPanel boardPanel;
     private ColorLegendPanel legendPanel;
@@ -32,31 +57,68 @@ public class ControlPanel extends JPanel {
         nInput.setPreferredSize(new Dimension(60, 25));
         add(nInput);
 
+        add(new JLabel("Engine:"));
+        engineInput = new JComboBox<>(Engine.values());
+        add(engineInput);
+
+        add(new JLabel("Mode:"));
+        modeInput = new JComboBox<>(RunMode.values());
+        add(modeInput);
+
+        add(new JLabel("Threads:"));
+        threadsInput = new JSpinner(new SpinnerNumberModel(Runtime.getRuntime().availableProcessors(), 1, 256, 1));
+        threadsInput.setPreferredSize(new Dimension(60, 25));
+        add(threadsInput);
+
+        add(new JLabel("Executor:"));
+        executorInput = new JComboBox<>(ExecutorStrategy.values());
+        add(executorInput);
+
         runBtn = new JButton("Run");
+        countBtn = new JButton("Count");
         stopBtn = new JButton("Stop");
         stopBtn.setEnabled(false);
 
         add(runBtn);
+        add(countBtn);
         add(stopBtn);
 
+        recordInput = new JCheckBox("Record");
+        add(recordInput);
+        replayBtn = new JButton("Replay...");
+        add(replayBtn);
+
+        progressLabel = new JLabel();
+        add(progressLabel);
+        showTreeEstimate();
+        nInput.addChangeListener(e -> showTreeEstimate());
+        new Timer(PROGRESS_REFRESH_MS, e -> refreshProgress()).start();
+
         runBtn.addActionListener(e -> {
             try {
                 int N = (Integer) nInput.getValue();
+                RunMode mode = (RunMode) modeInput.getSelectedItem();
+                Engine engine = (Engine) engineInput.getSelectedItem();
+                int numThreads = (Integer) threadsInput.getValue();
+                ExecutorStrategy strategy = (ExecutorStrategy) executorInput.getSelectedItem();
                 
                 // Set board size first
                 boardPanel.setBoardSize(N);
                 boardPanel.clearBoard();
                 
-                // Initialize thread manager with N threads (same as grid size)
-                mainFrame.initializeThreadManager(N);
+                // Worker lanes are independent of N; start rows are handed out as tasks
+                mainFrame.initializeThreadManager(numThreads, strategy);
                 
                 // Wait a bit for initialization
                 SwingUtilities.invokeLater(() -> {
                     if (threadManager != null && snapshotConsumer != null) {
                         snapshotConsumer.startConsuming();
-                        threadManager.startAll(N);
-                        runBtn.setEnabled(false);
-                        stopBtn.setEnabled(true);
+                        threadManager.setWatched(true);
+                        if (recordInput.isSelected()) {
+                            threadManager.startRecording(newRecordingPath());
+                        }
+                        threadManager.startAll(N, RunConfig.defaults(mode), engine);
+                        setRunning(true);
                     }
                 });
 
@@ -66,17 +128,96 @@ public class ControlPanel extends JPanel {
             }
         });
 
+        // Every solution counted headless on the lanes; the only run with a tree estimate, so the only one with
+        // percent done and an ETA
+        countBtn.addActionListener(e -> {
+            int N = (Integer) nInput.getValue();
+            if (N > BitmaskSearch.MAX_N) {
+                JOptionPane.showMessageDialog(this, "Counting covers N up to " + BitmaskSearch.MAX_N);
+                return;
+            }
+            mainFrame.initializeThreadManager((Integer) threadsInput.getValue(),
+                    (ExecutorStrategy) executorInput.getSelectedItem());
+            ThreadManager manager = threadManager;
+            setRunning(true);
+            Thread counting = new Thread(() -> {
+                CountResult result = manager.countAll(N, true);
+                SwingUtilities.invokeLater(() -> {
+                    if (manager != threadManager || !stopBtn.isEnabled()) return; // stopped or replaced meanwhile
+                    setRunning(false);
+                    progressLabel.setText(String.format("N=%d: %d solutions, %d fundamental, %d ms", N,
+                            result.getTotal(), result.getFundamental(), result.getElapsedNanos() / 1_000_000));
+                });
+            }, "count-" + N);
+            counting.setDaemon(true);
+            counting.start();
+        });
+
+        replayBtn.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(Paths.get(System.getProperty("user.home"), ".nqueens", "runs").toFile());
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                new ReplayFrame(chooser.getSelectedFile().toPath()).setVisible(true);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot open recording: " + ex.getMessage());
+            }
+        });
+
         stopBtn.addActionListener(e -> {
             if (threadManager != null && snapshotConsumer != null) {
                 threadManager.stopAll();
+                threadManager.setWatched(false);
                 snapshotConsumer.stopConsuming();
                 boardPanel.clearBoard();
-                runBtn.setEnabled(true);
-                stopBtn.setEnabled(false);
+                setRunning(false);
+                showTreeEstimate();
             }
         });
     }
 
+    private void setRunning(boolean running) {
+        runBtn.setEnabled(!running);
+        countBtn.setEnabled(!running);
+        stopBtn.setEnabled(running);
+    }
+
+    private Path newRecordingPath() {
+        Path dir = Paths.get(System.getProperty("user.home"), ".nqueens", "runs");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException ignored) {
+            // the recorder reports the failure when it tries to open the file
+        }
+        return dir.resolve("run-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".nqlog");
+    }
+
+    // Before a run: how big the tree a count of the selected N searches is
+    private void showTreeEstimate() {
+        int N = (Integer) nInput.getValue();
+        if (N > BitmaskSearch.MAX_N) {
+            progressLabel.setText(" ");
+            return;
+        }
+        TreeEstimator.Estimate estimate = TreeEstimator.estimate(N, PREVIEW_PROBES, N);
+        progressLabel.setText(String.format("Count tree: ~%.2g nodes, ~%.2g solutions",
+                estimate.getNodes(), estimate.getSolutions()));
+    }
+
+    // During a count: percent done and ETA (the other runs have no estimate)
+    private void refreshProgress() {
+        if (threadManager == null || !stopBtn.isEnabled()) return;
+        Progress progress = threadManager.getProgress();
+        if (progress == null) return;
+        if (progress.isSaturated()) {
+            progressLabel.setText(String.format("Tree too large to estimate (>%.2g nodes)",
+                    (double) progress.getEstimatedNodes()));
+            return;
+        }
+        progressLabel.setText(String.format("%.1f%% of ~%.2g nodes, ETA %s",
+                progress.getPercentDone(), (double) progress.getEstimatedNodes(),
+                progress.getEtaMillis() < 0 ? "?" : Progress.formatMillis(progress.getEtaMillis())));
+    }
+
     public void setThreadManager(ThreadManager manager) {
         this.threadManager = manager;
     }
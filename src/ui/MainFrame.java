@@ -1,5 +1,7 @@
 package ui;
 
+import cache.SolutionCache;
+import controller.ExecutorStrategy;
 import controller.SnapshotConsumer;
 import controller.ThreadManager;
 
@@ -10,10 +12,12 @@ public class MainFrame extends JFrame {
 
     private ThreadManager threadManager;
     private SnapshotConsumer snapshotConsumer;
+    private final SolutionCache solutionCache = SolutionCache.openDefault(); // shared by every ThreadManager
 
     private BoardPanel boardPanel;
     private ControlPanel controlPanel;
     private ColorLegendPanel legendPanel;
+    private MetricsPanel metricsPanel;
 
     public MainFrame() {
         setTitle("N-Queens Solver (Multithreaded)");
@@ -23,32 +27,43 @@ public class MainFrame extends JFrame {
 
         boardPanel = new BoardPanel();
         legendPanel = new ColorLegendPanel();
+        metricsPanel = new MetricsPanel();
         controlPanel = new ControlPanel(boardPanel, legendPanel, this);
 
         add(controlPanel, BorderLayout.NORTH);
         add(boardPanel, BorderLayout.CENTER);
-        add(legendPanel, BorderLayout.EAST);
+
+        JPanel sidePanel = new JPanel(new BorderLayout());
+        sidePanel.add(legendPanel, BorderLayout.CENTER);
+        sidePanel.add(metricsPanel, BorderLayout.SOUTH);
+        add(sidePanel, BorderLayout.EAST);
     }
 
     public void initializeThreadManager(int numThreads) {
+        initializeThreadManager(numThreads, ExecutorStrategy.PLATFORM_POOL);
+    }
+
+    public void initializeThreadManager(int numThreads, ExecutorStrategy executorStrategy) {
         // Stop and cleanup existing threads if any
         if (threadManager != null) {
-            threadManager.stopAll();
+            threadManager.shutdown();
         }
         if (snapshotConsumer != null) {
             snapshotConsumer.stopConsuming();
         }
 
-        threadManager = new ThreadManager(numThreads);
+        threadManager = new ThreadManager(numThreads, executorStrategy);
+        threadManager.setCache(solutionCache);
         snapshotConsumer = new SnapshotConsumer(
                 boardPanel,
-                threadManager.getSnapshotQueue(),
+                threadManager.getSnapshotChannel(),
                 threadManager.getThreadColorMap()
         );
 
         controlPanel.setThreadManager(threadManager);
         controlPanel.setSnapshotConsumer(snapshotConsumer);
         legendPanel.setThreadColors(threadManager.getThreadColorMap());
+        metricsPanel.setMetrics(threadManager.getMetrics());
     }
 
     public void updateThreadColors(java.util.Map<Integer, Color> colorMap) {
@@ -0,0 +1,67 @@
+package ui;
+
+import controller.SolverMetrics;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class MetricsPanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int REFRESH_MS = 500;
+
+    private SolverMetrics metrics;
+
+    public MetricsPanel() {
+        setPreferredSize(new Dimension(150, 230));
+        new Timer(REFRESH_MS, e -> repaint()).start();
+    }
+
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        g.setColor(Color.BLACK);
+        g.drawString("Metrics:", 10, 20);
+        if (metrics == null) return;
+
+        double[] laneRates = metrics.getLaneNodesPerSecond();
+        double minRate = Double.MAX_VALUE, maxRate = 0;
+        for (double rate : laneRates) {
+            minRate = Math.min(minRate, rate);
+            maxRate = Math.max(maxRate, rate);
+        }
+        if (laneRates.length == 0) minRate = 0;
+
+        String[] lines = {
+                "nodes/s: " + format(metrics.getNodesPerSecond()),
+                "lane min: " + format(minRate),
+                "lane max: " + format(maxRate),
+                "placed: " + format(metrics.getPlacements()),
+                "backtracks: " + format(metrics.getBacktracks()),
+                "solutions: " + metrics.getSolutions(),
+                "emitted: " + format(metrics.getSnapshotsEmitted()),
+                "dropped: " + format(metrics.getSnapshotsDropped()),
+                "queue depth: " + metrics.getQueueDepth(),
+                "lag: " + metrics.getConsumerLagMillis() + " ms",
+        };
+
+        int y = 40;
+        for (String line : lines) {
+            g.drawString(line, 10, y);
+            y += 18;
+        }
+    }
+
+    private static String format(double value) {
+        if (value >= 1e9) return String.format("%.1fG", value / 1e9);
+        if (value >= 1e6) return String.format("%.1fM", value / 1e6);
+        if (value >= 1e3) return String.format("%.1fk", value / 1e3);
+        return String.format("%.0f", value);
+    }
+}
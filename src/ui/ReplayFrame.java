@@ -0,0 +1,93 @@
+package ui;
+
+import controller.ReplayPlayer;
+import controller.ReplaySource;
+import controller.ThreadManager;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Window for inspecting a recorded run: play/pause, playback speed and a slider to jump to any step
+public class ReplayFrame extends JFrame {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int REFRESH_MS = 100;
+    private static final Double[] SPEEDS = {0.1, 0.25, 0.5, 1.0, 2.0, 5.0, 10.0, 100.0, 1000.0};
+
+    private final ReplaySource source;
+    private final ReplayPlayer player;
+    private final JSlider stepSlider;
+    private final JLabel stepLabel;
+    private final long stepsPerTick; // the slider is an int, long recordings get coarser ticks
+    private boolean updatingSlider = false;
+
+    public ReplayFrame(Path recording) throws IOException {
+        setTitle("Replay: " + recording.getFileName());
+        setSize(700, 760);
+        setLayout(new BorderLayout());
+
+        source = new ReplaySource(recording);
+        BoardPanel boardPanel = new BoardPanel();
+        boardPanel.setBoardSize(source.getN());
+        player = new ReplayPlayer(boardPanel, source, ThreadManager.colorsFor(source.getLanes()));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton playBtn = new JButton("Play");
+        controls.add(playBtn);
+
+        controls.add(new JLabel("Speed:"));
+        JComboBox<Double> speedInput = new JComboBox<>(SPEEDS);
+        speedInput.setSelectedItem(1.0);
+        controls.add(speedInput);
+
+        stepLabel = new JLabel();
+        controls.add(stepLabel);
+
+        stepsPerTick = Math.max(1, source.getStepCount() / Integer.MAX_VALUE + 1);
+        stepSlider = new JSlider(0, (int) (source.getStepCount() / stepsPerTick), 0);
+
+        add(controls, BorderLayout.NORTH);
+        add(boardPanel, BorderLayout.CENTER);
+        add(stepSlider, BorderLayout.SOUTH);
+
+        playBtn.addActionListener(e -> {
+            if (player.isPlaying()) {
+                player.pause();
+            } else {
+                if (source.getStep() >= source.getStepCount()) player.seek(0);
+                player.play();
+            }
+        });
+        speedInput.addActionListener(e -> player.setSpeed((Double) speedInput.getSelectedItem()));
+        stepSlider.addChangeListener(e -> {
+            if (!updatingSlider) player.seek(stepSlider.getValue() * stepsPerTick);
+        });
+
+        new Timer(REFRESH_MS, e -> {
+            playBtn.setText(player.isPlaying() ? "Pause" : "Play");
+            updatingSlider = true;
+            stepSlider.setValue((int) (source.getStep() / stepsPerTick));
+            updatingSlider = false;
+            stepLabel.setText("step " + source.getStep() + " / " + source.getStepCount()
+                    + "   t=" + source.getTimestamp() + " ms");
+        }).start();
+
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                player.pause();
+                try {
+                    source.close();
+                } catch (IOException ignored) {
+                    // nothing left to release
+                }
+            }
+        });
+
+        SwingUtilities.invokeLater(player::show);
+    }
+}